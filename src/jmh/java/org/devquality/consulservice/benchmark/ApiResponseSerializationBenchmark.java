@@ -0,0 +1,48 @@
+package org.devquality.consulservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devquality.consulservice.config.JacksonConfig;
+import org.devquality.consulservice.web.dtos.ApiResponseDto;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApiResponseDto} envelopes written through the application {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "1000", "10000", "50000"})
+    public int instances;
+
+    private ObjectMapper objectMapper;
+    private ApiResponseDto<List<ServiceInstanceDto>> instancesResponse;
+    private ApiResponseDto<List<String>> servicesResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        var byService = SyntheticCatalog.byService(instances);
+        instancesResponse = ApiResponseDto.success(
+                byService.values().stream().flatMap(List::stream).toList(), "Found instances");
+        servicesResponse = ApiResponseDto.success(List.copyOf(byService.keySet()), "Found services");
+    }
+
+    @Benchmark
+    public byte[] serializeInstances() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(instancesResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeServices() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(servicesResponse);
+    }
+}
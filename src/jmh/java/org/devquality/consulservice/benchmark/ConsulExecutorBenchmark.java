@@ -0,0 +1,59 @@
+package org.devquality.consulservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Throughput of blocking Consul-like calls on virtual threads versus a platform pool sized
+ * like the default {@code taskExecutor} (4 core, 8 max, queue 500).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConsulExecutorBenchmark {
+
+    @Param({"virtual", "platform"})
+    public String mode;
+
+    @Param({"50", "400"})
+    public int concurrentCalls;
+
+    @Param({"2"})
+    public int consulLatencyMillis;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bench-vt-", 0).factory())
+                : new ThreadPoolExecutor(4, 8, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(500));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(concurrentCalls);
+        for (int i = 0; i < concurrentCalls; i++) {
+            int call = i;
+            futures.add(executor.submit(() -> {
+                Thread.sleep(consulLatencyMillis);
+                return call;
+            }));
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+}
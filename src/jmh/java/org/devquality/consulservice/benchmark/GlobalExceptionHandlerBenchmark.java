@@ -0,0 +1,58 @@
+package org.devquality.consulservice.benchmark;
+
+import org.devquality.consulservice.exception.ConsulConnectionException;
+import org.devquality.consulservice.exception.GlobalExceptionHandler;
+import org.devquality.consulservice.exception.ServiceNotFoundException;
+import org.devquality.consulservice.web.dtos.ApiResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error paths from throwing the exception to the response entity. Logging is switched off,
+ * so the numbers cover exception construction and response building only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private WebRequest request;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog.silenceLogging();
+        handler = new GlobalExceptionHandler();
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/consul/services/unknown"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponseDto<Object>> serviceNotFound() {
+        return handler.handleConsulServiceException(new ServiceNotFoundException("unknown"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponseDto<Object>> consulUnavailable() {
+        return handler.handleConsulServiceException(
+                new ConsulConnectionException("Failed to retrieve services from Consul",
+                        new IllegalStateException("connection refused")), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponseDto<Object>> illegalArgument() {
+        return handler.handleIllegalArgumentException(
+                new IllegalArgumentException("Service name cannot be null or empty"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponseDto<Object>> unexpectedRuntimeException() {
+        return handler.handleRuntimeException(new IllegalStateException("boom"), request);
+    }
+}
@@ -0,0 +1,54 @@
+package org.devquality.consulservice.benchmark;
+
+import org.devquality.consulservice.service.loadbalancing.*;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request selection cost of each strategy, with several threads choosing at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class LoadBalancingStrategyBenchmark {
+
+    @Param({"round-robin", "weighted", "p2c", "least-latency"})
+    public String strategyName;
+
+    @Param({"3", "50", "500"})
+    public int candidates;
+
+    private LoadBalancingStrategy strategy;
+    private List<ServiceInstanceDto> instances;
+
+    @Setup
+    public void setUp() {
+        InstanceLoadTracker loadTracker = new InstanceLoadTracker();
+        strategy = switch (strategyName) {
+            case "weighted" -> new WeightedStrategy();
+            case "p2c" -> new PowerOfTwoChoicesStrategy(loadTracker);
+            case "least-latency" -> new LeastLatencyStrategy(loadTracker);
+            default -> new RoundRobinStrategy();
+        };
+        instances = SyntheticCatalog.byService(candidates * SyntheticCatalog.INSTANCES_PER_SERVICE).values().stream()
+                .flatMap(List::stream)
+                .limit(candidates)
+                .toList();
+        for (int i = 0; i < instances.size(); i++) {
+            String instanceId = instances.get(i).getInstanceId();
+            loadTracker.acquire(instanceId);
+            loadTracker.release(instanceId, (long) (i % 7 + 1));
+        }
+    }
+
+    @Benchmark
+    public ServiceInstanceDto choose() {
+        return strategy.choose("service-0", instances);
+    }
+}
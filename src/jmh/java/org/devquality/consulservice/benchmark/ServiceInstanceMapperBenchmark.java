@@ -0,0 +1,40 @@
+package org.devquality.consulservice.benchmark;
+
+import org.devquality.consulservice.service.ServiceInstanceMapper;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping a whole catalog from discovery client instances to API DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ServiceInstanceMapperBenchmark {
+
+    @Param({"10", "1000", "10000", "50000"})
+    public int instances;
+
+    private List<ServiceInstance> catalog;
+
+    @Setup
+    public void setUp() {
+        catalog = SyntheticCatalog.instances(instances);
+    }
+
+    @Benchmark
+    public List<ServiceInstanceDto> mapCatalog() {
+        List<ServiceInstanceDto> dtos = new ArrayList<>(catalog.size());
+        for (ServiceInstance instance : catalog) {
+            dtos.add(ServiceInstanceMapper.toDto(instance));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,74 @@
+package org.devquality.consulservice.benchmark;
+
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.service.ServiceLookupFanOut;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stats-style lookup of every service against a simulated Consul round trip, one after
+ * the other versus through {@link ServiceLookupFanOut}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceLookupFanOutBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int services;
+
+    @Param({"1"})
+    public int consulLatencyMillis;
+
+    private List<String> serviceNames;
+    private ExecutorService executor;
+    private ServiceLookupFanOut fanOut;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog.silenceLogging();
+        serviceNames = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            serviceNames.add(SyntheticCatalog.serviceName(i));
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bench-fanout-", 0).factory());
+        fanOut = new ServiceLookupFanOut(new ApplicationConfig(), executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Map<String, Integer> sequential() {
+        Map<String, Integer> results = new HashMap<>();
+        for (String serviceName : serviceNames) {
+            results.put(serviceName, lookup(serviceName));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Map<String, ServiceLookupFanOut.LookupResult<Integer>> fanOut() {
+        return fanOut.lookup(serviceNames, this::lookup);
+    }
+
+    private int lookup(String serviceName) {
+        try {
+            Thread.sleep(consulLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return serviceName.length();
+    }
+}
@@ -0,0 +1,76 @@
+package org.devquality.consulservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.service.RegistryChangedEvent;
+import org.devquality.consulservice.service.RegistrySnapshot;
+import org.devquality.consulservice.service.ServiceStatsAggregator;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.devquality.consulservice.web.dtos.ServiceStatsDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full stats recompute over the catalog against the incremental update the aggregator
+ * applies when a single service changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ServiceStatsBenchmark {
+
+    @Param({"10", "1000", "10000", "50000"})
+    public int instances;
+
+    private RegistrySnapshot snapshot;
+    private ServiceStatsAggregator aggregator;
+    private RegistryChangedEvent flipDown;
+    private RegistryChangedEvent flipUp;
+    private boolean down;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog.silenceLogging();
+        snapshot = SyntheticCatalog.snapshot(instances);
+        aggregator = new ServiceStatsAggregator(new ApplicationConfig(), new SimpleMeterRegistry());
+        aggregator.onRegistryChanged(new RegistryChangedEvent(RegistrySnapshot.EMPTY, snapshot, List.of()));
+
+        String serviceName = SyntheticCatalog.serviceName(0);
+        List<ServiceInstanceDto> healthy = snapshot.instancesOf(serviceName);
+        List<ServiceInstanceDto> unhealthy = new ArrayList<>();
+        for (ServiceInstanceDto instance : healthy) {
+            unhealthy.add(ServiceInstanceDto.builder()
+                    .serviceId(instance.getServiceId())
+                    .instanceId(instance.getInstanceId())
+                    .host(instance.getHost())
+                    .port(instance.getPort())
+                    .uri(instance.getUri())
+                    .secure(instance.getSecure())
+                    .metadata(instance.getMetadata())
+                    .scheme(instance.getScheme())
+                    .status("DOWN")
+                    .build());
+        }
+        flipDown = new RegistryChangedEvent(snapshot, snapshot,
+                List.of(new RegistryChangedEvent.ServiceChange(serviceName, healthy, unhealthy)));
+        flipUp = new RegistryChangedEvent(snapshot, snapshot,
+                List.of(new RegistryChangedEvent.ServiceChange(serviceName, unhealthy, healthy)));
+    }
+
+    @Benchmark
+    public ServiceStatsDto fullRecompute() {
+        return ServiceStatsAggregator.compute(snapshot);
+    }
+
+    @Benchmark
+    public ServiceStatsDto incrementalUpdate() {
+        down = !down;
+        aggregator.onRegistryChanged(down ? flipDown : flipUp);
+        return aggregator.getStats();
+    }
+}
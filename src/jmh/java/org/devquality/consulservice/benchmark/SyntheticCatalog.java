@@ -0,0 +1,65 @@
+package org.devquality.consulservice.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.devquality.consulservice.service.RegistrySnapshot;
+import org.devquality.consulservice.service.ServiceInstanceMapper;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Deterministic catalogs for the benchmarks: {@value #INSTANCES_PER_SERVICE} instances per
+ * service, every tenth instance DOWN and every service carrying a handful of metadata keys.
+ */
+final class SyntheticCatalog {
+
+    static final int INSTANCES_PER_SERVICE = 10;
+
+    private SyntheticCatalog() {
+    }
+
+    static List<ServiceInstance> instances(int count) {
+        List<ServiceInstance> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String serviceName = serviceName(i / INSTANCES_PER_SERVICE);
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("status", i % 10 == 9 ? "DOWN" : "UP");
+            metadata.put("version", "1." + (i % 4));
+            metadata.put("zone", "zone-" + (i % 3));
+            metadata.put("weight", String.valueOf(1 + i % 5));
+            instances.add(new DefaultServiceInstance(serviceName + "-" + i, serviceName,
+                    "10.0." + (i / 250 % 250) + "." + (i % 250), 8080 + i % 10, i % 2 == 0, metadata));
+        }
+        return instances;
+    }
+
+    static Map<String, List<ServiceInstanceDto>> byService(int instanceCount) {
+        Map<String, List<ServiceInstanceDto>> byService = new LinkedHashMap<>();
+        for (ServiceInstance instance : instances(instanceCount)) {
+            byService.computeIfAbsent(instance.getServiceId(), name -> new ArrayList<>())
+                    .add(ServiceInstanceMapper.toDto(instance));
+        }
+        return byService;
+    }
+
+    static RegistrySnapshot snapshot(int instanceCount) {
+        Map<String, List<ServiceInstanceDto>> byService = byService(instanceCount);
+        return new RegistrySnapshot(1L, new ArrayList<>(byService.keySet()), byService, Instant.now());
+    }
+
+    static String serviceName(int index) {
+        return "service-" + index;
+    }
+
+    /**
+     * Benchmarks run outside Spring Boot, where logback would default to DEBUG on the console.
+     */
+    static void silenceLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+    }
+}
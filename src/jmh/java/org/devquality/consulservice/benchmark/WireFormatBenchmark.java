@@ -0,0 +1,72 @@
+package org.devquality.consulservice.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devquality.consulservice.config.JacksonConfig;
+import org.devquality.consulservice.web.dtos.ApiResponseDto;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instance list envelopes encoded and decoded as JSON, CBOR and Smile with the mappers the
+ * application registers. The payload size is reported as the {@code payloadBytes} auxiliary
+ * counter next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10", "1000", "10000"})
+    public int instances;
+
+    private ObjectMapper mapper;
+    private JavaType responseType;
+    private ApiResponseDto<List<ServiceInstanceDto>> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        mapper = switch (format) {
+            case "cbor" -> jacksonConfig.cborMapper();
+            case "smile" -> jacksonConfig.smileMapper();
+            default -> jacksonConfig.objectMapper();
+        };
+        responseType = mapper.getTypeFactory().constructParametricType(ApiResponseDto.class,
+                mapper.getTypeFactory().constructCollectionType(List.class, ServiceInstanceDto.class));
+        response = ApiResponseDto.success(
+                SyntheticCatalog.byService(instances).values().stream().flatMap(List::stream).toList(),
+                "Found instances");
+        encoded = mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize size) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(response);
+        size.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode(PayloadSize size) throws IOException {
+        size.payloadBytes = encoded.length;
+        return mapper.readValue(encoded, responseType);
+    }
+
+    // Assigned rather than counted, so each iteration reports the size of one payload
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+}
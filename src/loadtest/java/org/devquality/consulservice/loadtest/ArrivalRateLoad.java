@@ -0,0 +1,135 @@
+package org.devquality.consulservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load: requests start on a fixed schedule whether or not earlier ones have
+ * finished, and latency is measured from the scheduled start, so a stalled server shows
+ * up in the percentiles instead of silently lowering the request rate.
+ */
+final class ArrivalRateLoad {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    record Endpoint(String name, String method, Supplier<String> path, String body) {
+
+        static Endpoint get(String name, Supplier<String> path) {
+            return new Endpoint(name, "GET", path, null);
+        }
+
+        static Endpoint post(String name, Supplier<String> path, String body) {
+            return new Endpoint(name, "POST", path, body);
+        }
+    }
+
+    record Result(String endpoint,
+                  int targetRate,
+                  double durationSeconds,
+                  long sent,
+                  long completed,
+                  long errors,
+                  double throughputPerSecond,
+                  double p50Millis,
+                  double p99Millis,
+                  double p999Millis,
+                  double maxMillis,
+                  double allocatedMbPerSecond,
+                  double allocatedKbPerRequest) {
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+
+    ArrivalRateLoad(HttpClient client, URI baseUri) {
+        this.client = client;
+        this.baseUri = baseUri;
+    }
+
+    Result run(Endpoint endpoint, int ratePerSecond, Duration duration) {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        AtomicLong errors = new AtomicLong();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long total = ratePerSecond * duration.toSeconds();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.add(client.sendAsync(request(endpoint), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies.recordValue(Math.max(0, (System.nanoTime() - scheduledAt) / 1_000));
+                        if (error != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.printf("Endpoint %s: gave up waiting for %d in-flight requests%n",
+                    endpoint.name(), inFlight.stream().filter(future -> !future.isDone()).count());
+        }
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long completed = latencies.getTotalCount();
+
+        return new Result(endpoint.name(),
+                ratePerSecond,
+                elapsedSeconds,
+                total,
+                completed,
+                errors.get(),
+                completed / elapsedSeconds,
+                latencies.getValueAtPercentile(50) / 1_000.0,
+                latencies.getValueAtPercentile(99) / 1_000.0,
+                latencies.getValueAtPercentile(99.9) / 1_000.0,
+                latencies.getMaxValue() / 1_000.0,
+                allocated / elapsedSeconds / (1024 * 1024),
+                completed == 0 ? 0 : allocated / (double) completed / 1024);
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(endpoint.path().get()))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (endpoint.body() != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(endpoint.method(), HttpRequest.BodyPublishers.ofString(endpoint.body()));
+        } else {
+            builder.method(endpoint.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Bytes allocated by every thread of this JVM, the application and the load generator alike.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,147 @@
+package org.devquality.consulservice.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Scripted Consul agent: a catalog of {@code services x instancesPerService} instances,
+ * health queries answered after a log-normal delay around {@code latencyMillis}, and a
+ * share of {@code errorRate} of them failing with 500. Blocking queries (those carrying
+ * {@code ?index=}) are held for {@code watchWaitMillis} like a real agent with no changes.
+ */
+final class ConsulStub implements AutoCloseable {
+
+    private static final String CONSUL_INDEX = "X-Consul-Index";
+    private static final long INDEX = 4242;
+
+    private final WireMockServer server;
+
+    ConsulStub(int services, int instancesPerService, int latencyMillis, double errorRate, int watchWaitMillis) {
+        server = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .asynchronousResponseEnabled(true)
+                .containerThreads(200)
+                .extensions(new FaultInjector(errorRate)));
+        server.start();
+
+        server.stubFor(get(urlPathEqualTo("/v1/catalog/services"))
+                .willReturn(okJson(catalog(services)).withHeader(CONSUL_INDEX, String.valueOf(INDEX))));
+        server.stubFor(get(urlPathEqualTo("/v1/catalog/services"))
+                .withQueryParam("index", matching(".+"))
+                .atPriority(1)
+                .willReturn(okJson(catalog(services))
+                        .withHeader(CONSUL_INDEX, String.valueOf(INDEX))
+                        .withFixedDelay(watchWaitMillis)));
+
+        for (int service = 0; service < services; service++) {
+            server.stubFor(get(urlPathEqualTo("/v1/health/service/" + serviceName(service)))
+                    .willReturn(okJson(health(service, instancesPerService))
+                            .withHeader(CONSUL_INDEX, String.valueOf(INDEX))
+                            .withLogNormalRandomDelay(Math.max(1, latencyMillis), 0.4)
+                            .withTransformers(FaultInjector.NAME)));
+        }
+        server.stubFor(get(urlPathMatching("/v1/health/service/.*"))
+                .atPriority(10)
+                .willReturn(okJson("[]").withHeader(CONSUL_INDEX, String.valueOf(INDEX))));
+
+        // Health state never changes during a run, the health watch just long-polls like the catalog watch
+        server.stubFor(get(urlPathEqualTo("/v1/health/state/any"))
+                .willReturn(okJson("[]").withHeader(CONSUL_INDEX, String.valueOf(INDEX))));
+        server.stubFor(get(urlPathEqualTo("/v1/health/state/any"))
+                .withQueryParam("index", matching(".+"))
+                .atPriority(1)
+                .willReturn(okJson("[]")
+                        .withHeader(CONSUL_INDEX, String.valueOf(INDEX))
+                        .withFixedDelay(watchWaitMillis)));
+
+        server.stubFor(get(urlPathEqualTo("/v1/status/leader")).willReturn(okJson("\"127.0.0.1:8300\"")));
+        server.stubFor(any(urlPathMatching("/v1/agent/.*")).willReturn(okJson("{}")));
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    static String serviceName(int index) {
+        return "service-" + index;
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    private static String catalog(int services) {
+        StringBuilder json = new StringBuilder("{\"consul\":[]");
+        for (int service = 0; service < services; service++) {
+            json.append(",\"").append(serviceName(service)).append("\":[\"loadtest\"]");
+        }
+        return json.append('}').toString();
+    }
+
+    private static String health(int service, int instances) {
+        String serviceName = serviceName(service);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < instances; i++) {
+            String instanceId = serviceName + "-" + i;
+            String address = "10." + (service / 250 % 250) + "." + (service % 250) + "." + (i % 250);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"Node\":{\"ID\":\"node-").append(i).append("\",\"Node\":\"node-").append(i)
+                    .append("\",\"Address\":\"").append(address).append("\",\"Datacenter\":\"dc1\",\"TaggedAddresses\":{},\"Meta\":{}},")
+                    .append("\"Service\":{\"ID\":\"").append(instanceId).append("\",\"Service\":\"").append(serviceName)
+                    .append("\",\"Tags\":[\"loadtest\"],\"Address\":\"").append(address)
+                    .append("\",\"Meta\":{\"status\":\"").append(i % 10 == 9 ? "DOWN" : "UP")
+                    .append("\",\"zone\":\"zone-").append(i % 3).append("\"},\"Port\":").append(8080 + i % 10).append("},")
+                    .append("\"Checks\":[{\"Node\":\"node-").append(i).append("\",\"CheckID\":\"service:").append(instanceId)
+                    .append("\",\"Name\":\"Service check\",\"Status\":\"").append(i % 10 == 9 ? "critical" : "passing")
+                    .append("\",\"ServiceID\":\"").append(instanceId)
+                    .append("\",\"ServiceName\":\"").append(serviceName).append("\"}]}");
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Replaces a share of the responses it is attached to with a 500.
+     */
+    static final class FaultInjector implements ResponseDefinitionTransformerV2 {
+
+        static final String NAME = "consul-fault-injector";
+
+        private final double errorRate;
+
+        FaultInjector(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                return ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(500)
+                        .withBody("Injected Consul failure")
+                        .build();
+            }
+            return serveEvent.getResponseDefinition();
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.devquality.consulservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.devquality.consulservice.ConsulServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Starts a {@link ConsulStub} and the application against it in this JVM, then drives each
+ * endpoint at a fixed arrival rate. Settings are system properties ({@code loadtest.*},
+ * see the {@code loadtest} Maven profile); results are printed and written as JSON.
+ */
+public final class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        int services = Integer.getInteger("loadtest.services", 200);
+        int instancesPerService = Integer.getInteger("loadtest.instances-per-service", 5);
+        int latencyMillis = Integer.getInteger("loadtest.consul-latency-ms", 5);
+        double errorRate = Double.parseDouble(System.getProperty("loadtest.consul-error-rate", "0.01"));
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30));
+        boolean registry = Boolean.parseBoolean(System.getProperty("loadtest.registry", "true"));
+        Set<String> only = Set.of(System.getProperty("loadtest.endpoints", "").split(","));
+        File report = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+        // The config server and Consul config would otherwise be contacted during bootstrap
+        System.setProperty("spring.cloud.bootstrap.enabled", "false");
+        System.setProperty("spring.cloud.config.enabled", "false");
+
+        try (ConsulStub consul = new ConsulStub(services, instancesPerService, latencyMillis, errorRate, 5_000);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(ConsulServiceApplication.class)
+                     .properties(
+                             "server.port=0",
+                             "spring.application.name=consul-service",
+                             "spring.cloud.consul.host=localhost",
+                             "spring.cloud.consul.port=" + consul.port(),
+                             "spring.cloud.consul.config.enabled=false",
+                             "spring.cloud.consul.discovery.register=false",
+                             "app.registry.enabled=" + registry,
+                             "app.registry.watch-wait=PT5S",
+                             "app.registry.snapshot.enabled=false",
+                             "logging.level.root=WARN")
+                     .run()) {
+
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(2))
+                    .build();
+            ArrivalRateLoad load = new ArrivalRateLoad(client, baseUri);
+
+            List<ArrivalRateLoad.Result> results = new ArrayList<>();
+            for (ArrivalRateLoad.Endpoint endpoint : endpoints(services)) {
+                if (!only.contains("") && !only.contains(endpoint.name())) {
+                    continue;
+                }
+                System.out.printf("▶ %s: warm-up %ds, then %d req/s for %ds%n",
+                        endpoint.name(), warmup.toSeconds(), rate, duration.toSeconds());
+                load.run(endpoint, rate, warmup);
+                results.add(load.run(endpoint, rate, duration));
+            }
+
+            print(results);
+            report.getParentFile().mkdirs();
+            new ObjectMapper()
+                    .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(report, results);
+            System.out.println("📄 Report written to " + report.getPath());
+        }
+        System.exit(0);
+    }
+
+    private static List<ArrivalRateLoad.Endpoint> endpoints(int services) {
+        String batch = IntStream.range(0, Math.min(10, services))
+                .mapToObj(LoadTestRunner::quoted)
+                .collect(Collectors.joining(",", "{\"service_names\":[", "]}"));
+        return List.of(
+                ArrivalRateLoad.Endpoint.get("services", () -> "api/v1/consul/services"),
+                ArrivalRateLoad.Endpoint.get("instances", () -> "api/v1/consul/services/"
+                        + ConsulStub.serviceName(ThreadLocalRandom.current().nextInt(services))),
+                ArrivalRateLoad.Endpoint.get("stats", () -> "api/v1/consul/services/stats"),
+                ArrivalRateLoad.Endpoint.post("batch", () -> "api/v1/consul/services/instances:batch", batch),
+                ArrivalRateLoad.Endpoint.get("metrics-custom", () -> "api/v1/metrics/custom"),
+                ArrivalRateLoad.Endpoint.get("metrics-status", () -> "api/v1/metrics/status"));
+    }
+
+    private static String quoted(int service) {
+        return "\"" + ConsulStub.serviceName(service) + "\"";
+    }
+
+    private static void print(List<ArrivalRateLoad.Result> results) {
+        System.out.printf("%n%-16s %8s %8s %7s %9s %9s %9s %9s %9s %10s %10s%n",
+                "endpoint", "sent", "done", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "alloc MB/s", "alloc KB/r");
+        for (ArrivalRateLoad.Result result : results) {
+            System.out.printf("%-16s %8d %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %10.1f %10.1f%n",
+                    result.endpoint(), result.sent(), result.completed(), result.errors(),
+                    result.throughputPerSecond(), result.p50Millis(), result.p99Millis(), result.p999Millis(),
+                    result.maxMillis(), result.allocatedMbPerSecond(), result.allocatedKbPerRequest());
+        }
+    }
+}
@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "app")
 @Data
@@ -14,6 +18,23 @@ public class ApplicationConfig {
     private String description;
     private Contact contact = new Contact();
     private Cors cors = new Cors();
+    private Registry registry = new Registry();
+    private FanOut fanOut = new FanOut();
+    private Stats stats = new Stats();
+    private Fallback fallback = new Fallback();
+    private Watch watch = new Watch();
+    private Async async = new Async();
+    private Executor executor = new Executor();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private Hedging hedging = new Hedging();
+    private Isolation isolation = new Isolation();
+    private ResponseCache responseCache = new ResponseCache();
+    private InstanceIndex instanceIndex = new InstanceIndex();
+    private ServiceListing serviceListing = new ServiceListing();
+    private Probe probe = new Probe();
+    private MetricsSnapshot metricsSnapshot = new MetricsSnapshot();
+    private LoadBalancing loadBalancing = new LoadBalancing();
+    private Coalescing coalescing = new Coalescing();
 
     @Data
     public static class Contact {
@@ -30,4 +51,166 @@ public class ApplicationConfig {
         private boolean allowCredentials = true;
         private long maxAge = 3600;
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class Registry {
+        private boolean enabled = true;
+        private Duration watchWait = Duration.ofSeconds(30);
+        private Duration errorBackoff = Duration.ofSeconds(5);
+        // Registry answers are reported stale once Consul has not confirmed them for this long, keep above watchWait
+        private Duration staleAfter = Duration.ofSeconds(90);
+        // Long-poll /v1/health/state/any so check status changes reach the cache without a catalog change
+        private boolean healthWatch = true;
+        private Snapshot snapshot = new Snapshot();
+
+        @Data
+        public static class Snapshot {
+            private boolean enabled = true;
+            private String path = System.getProperty("java.io.tmpdir") + "/consul-service/registry.snapshot";
+            private Duration writeInterval = Duration.ofSeconds(30);
+            private Duration maxAge = Duration.ofHours(1);
+        }
+    }
+
+    @Data
+    public static class FanOut {
+        private int maxConcurrency = 16;
+        private Duration deadline = Duration.ofSeconds(3);
+    }
+
+    @Data
+    public static class Stats {
+        private boolean consistencyCheck = false;
+    }
+
+    @Data
+    public static class Fallback {
+        private Duration ttl = Duration.ofMinutes(10);
+        private int maxEntries = 1000;
+        private Duration revalidateInterval = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Watch {
+        private Duration debounce = Duration.ofMillis(500);
+        private int historySize = 64;
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+        private Duration emitterTimeout = Duration.ofMinutes(30);
+        // A subscriber stuck in one write this long, or this many events behind, is dropped
+        private Duration sendTimeout = Duration.ofSeconds(10);
+        private int maxQueuedEvents = 256;
+    }
+
+    @Data
+    public static class Async {
+        private ExecutionMode mode = ExecutionMode.VIRTUAL;
+        private String threadNamePrefix = "consul-vt-";
+        private boolean pinningDetection = true;
+        private Duration pinningThreshold = Duration.ofMillis(20);
+
+        public enum ExecutionMode {
+            VIRTUAL, PLATFORM
+        }
+    }
+
+    @Data
+    public static class Executor {
+        private int corePoolSize = 4;
+        private int minPoolSize = 2;
+        private int maxPoolSize = 8;
+        private int queueCapacity = 500;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private boolean adaptive = true;
+        private Duration targetQueueWait = Duration.ofMillis(50);
+        private Duration adjustInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private double rttTolerance = 1.5;
+        private int shortWindow = 10;
+        private int longWindow = 600;
+        private double backoffRatio = 0.9;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        // Extra agents besides spring.cloud.consul.host, e.g. http://consul-b:8500
+        private List<String> agents = new ArrayList<>();
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+        private int windowSize = 1024;
+        private double budgetPercent = 10;
+        private int maxBurst = 10;
+        // Overall limit for one lookup, primary and hedge together
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Isolation {
+        // resilience4j circuitbreaker/bulkhead config every per-service instance is created from
+        private String configName = "consul-service";
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration evictInterval = Duration.ofMinutes(1);
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class ResponseCache {
+        private boolean enabled = true;
+        private boolean gzip = true;
+        private int gzipMinBytes = 1024;
+        // Least recently used entries are evicted past either limit
+        private int maxEntries = 5000;
+        private long maxBytes = 64L * 1024 * 1024;
+    }
+
+    @Data
+    public static class InstanceIndex {
+        private int maxPageSize = 1000;
+    }
+
+    @Data
+    public static class ServiceListing {
+        private int defaultLimit = 500;
+        private int maxLimit = 5000;
+    }
+
+    @Data
+    public static class Probe {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofSeconds(5);
+        // Consecutive failed probes before Consul is reported DOWN
+        private int failureThreshold = 3;
+        // Leader RTT p95 above this reports DEGRADED
+        private Duration slowThreshold = Duration.ofMillis(500);
+        // Rolling window of the RTT histogram
+        private Duration window = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class MetricsSnapshot {
+        // How long /metrics/custom serves one computed snapshot, also sent as Cache-Control max-age
+        private Duration refreshInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class LoadBalancing {
+        // Choices not released within one to two of these periods are dropped as leaked
+        private Duration inFlightTimeout = Duration.ofMinutes(2);
+    }
+
+    @Data
+    public static class Coalescing {
+        // Longest a caller waits on a call another request already has in flight
+        private Duration maxWait = Duration.ofSeconds(10);
+    }
+}
@@ -1,28 +1,95 @@
 package org.devquality.consulservice.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.exception.ExecutorSaturatedException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 @Slf4j
 public class AsyncConfig {
 
+    // Owned here in VIRTUAL mode; in PLATFORM mode the taskExecutor bean owns its pool and shuts it down
+    private ExecutorService virtualExecutor;
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public ThreadPoolTaskExecutor taskExecutor(ApplicationConfig applicationConfig,
+                                               TaskExecutorTuner tuner,
+                                               MeterRegistry meterRegistry) {
+        ApplicationConfig.Executor properties = applicationConfig.getExecutor();
+
+        Counter rejections = Counter.builder("consul.executor.rejections")
+                .description("Tasks rejected because the taskExecutor was saturated")
+                .register(meterRegistry);
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(8);
-        executor.setQueueCapacity(500);
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
         executor.setThreadNamePrefix("Consul-Service-Async-");
-        executor.setRejectedExecutionHandler((r, ex) ->
-                log.warn("⚠️ Task rejected, thread pool is full and queue is also full"));
+        executor.setTaskDecorator(tuner);
+        // Fail fast instead of dropping the task, so no caller is left waiting on a future that never completes
+        executor.setRejectedExecutionHandler((r, ex) -> {
+            rejections.increment();
+            log.warn("⚠️ Task rejected, thread pool is full and queue is also full");
+            throw new ExecutorSaturatedException("taskExecutor", properties.getRetryAfter());
+        });
         executor.initialize();
+        tuner.attach(executor);
+
+        Gauge.builder("consul.executor.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tasks waiting in the taskExecutor queue")
+                .register(meterRegistry);
+        Gauge.builder("consul.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("taskExecutor threads currently running a task")
+                .register(meterRegistry);
+        Gauge.builder("consul.executor.pool.core", executor, ThreadPoolTaskExecutor::getCorePoolSize)
+                .description("Current taskExecutor core pool size")
+                .register(meterRegistry);
+
         return executor;
     }
+
+    // Executor for blocking Consul calls: one virtual thread per task, or the platform pool above.
+    // No destroy method: closing the platform pool here would bypass taskExecutor's graceful shutdown
+    @Bean(name = "consulExecutor", destroyMethod = "")
+    public ExecutorService consulExecutor(ApplicationConfig applicationConfig,
+                                          @Qualifier("taskExecutor") ThreadPoolTaskExecutor taskExecutor,
+                                          MeterRegistry meterRegistry) {
+        ApplicationConfig.Async async = applicationConfig.getAsync();
+
+        ExecutorService executor;
+        if (async.getMode() == ApplicationConfig.Async.ExecutionMode.VIRTUAL) {
+            executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(async.getThreadNamePrefix(), 0).factory());
+            virtualExecutor = executor;
+            log.info("🧵 Consul calls run on virtual threads ({}*)", async.getThreadNamePrefix());
+        } else {
+            executor = taskExecutor.getThreadPoolExecutor();
+            log.info("🧵 Consul calls run on the platform thread pool ({}*)", taskExecutor.getThreadNamePrefix());
+        }
+
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "consul-executor");
+    }
+
+    @PreDestroy
+    public void shutdownVirtualExecutor() {
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdownNow();
+        }
+    }
 }
@@ -1,11 +1,18 @@
 // ConsulConfig.java
 package org.devquality.consulservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.devquality.consulservice.service.LastKnownGoodCache;
+import org.devquality.consulservice.service.SingleFlight;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Configuration
 public class ConsulConfig {
 
@@ -14,4 +21,30 @@ public class ConsulConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    @Bean
+    public SingleFlight<String, List<String>> serviceListFlight(ApplicationConfig applicationConfig,
+                                                               MeterRegistry meterRegistry) {
+        return new SingleFlight<>("services", applicationConfig.getCoalescing().getMaxWait(), meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, List<ServiceInstance>> instanceLookupFlight(ApplicationConfig applicationConfig,
+                                                                            MeterRegistry meterRegistry) {
+        return new SingleFlight<>("instances", applicationConfig.getCoalescing().getMaxWait(), meterRegistry);
+    }
+
+    @Bean
+    public LastKnownGoodCache<String, List<String>> servicesFallbackCache(ApplicationConfig applicationConfig,
+                                                                          MeterRegistry meterRegistry) {
+        ApplicationConfig.Fallback fallback = applicationConfig.getFallback();
+        return new LastKnownGoodCache<>("services", fallback.getTtl(), 1, meterRegistry);
+    }
+
+    @Bean
+    public LastKnownGoodCache<String, List<ServiceInstanceDto>> instancesFallbackCache(ApplicationConfig applicationConfig,
+                                                                                       MeterRegistry meterRegistry) {
+        ApplicationConfig.Fallback fallback = applicationConfig.getFallback();
+        return new LastKnownGoodCache<>("instances", fallback.getTtl(), fallback.getMaxEntries(), meterRegistry);
+    }
 }
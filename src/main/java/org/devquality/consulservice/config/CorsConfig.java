@@ -30,7 +30,7 @@ public class CorsConfig {
         configuration.setAllowedHeaders(Arrays.asList("*"));
 
         configuration.setExposedHeaders(Arrays.asList(
-                "X-Total-Count", "X-Total-Pages", "Authorization"
+                "X-Total-Count", "X-Total-Pages", "X-Next-Cursor", "Authorization"
         ));
 
         configuration.setAllowCredentials(true);
@@ -0,0 +1,72 @@
+package org.devquality.consulservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long tasks wait in the {@code taskExecutor} queue and resizes the core pool
+ * within the configured bounds: it grows one thread at a time while the mean wait is above
+ * the target, and shrinks once the queue is idle again.
+ */
+@Component
+@Slf4j
+public class TaskExecutorTuner implements TaskDecorator {
+
+    private final ApplicationConfig.Executor properties;
+    private final Timer queueWait;
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private ThreadPoolTaskExecutor executor;
+
+    public TaskExecutorTuner(ApplicationConfig applicationConfig, MeterRegistry meterRegistry) {
+        this.properties = applicationConfig.getExecutor();
+        this.queueWait = Timer.builder("consul.executor.queue.wait")
+                .description("Time tasks spent queued before a taskExecutor thread picked them up")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    void attach(ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long waited = System.nanoTime() - submittedAt;
+            queueWait.record(waited, TimeUnit.NANOSECONDS);
+            waitNanos.add(waited);
+            started.increment();
+            runnable.run();
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.executor.adjust-interval:PT5S}")
+    public void adjust() {
+        if (executor == null || !properties.isAdaptive()) {
+            return;
+        }
+
+        long count = started.sumThenReset();
+        long meanWait = count == 0 ? 0 : waitNanos.sumThenReset() / count;
+        long target = properties.getTargetQueueWait().toNanos();
+        int core = executor.getCorePoolSize();
+
+        if (meanWait > target && core < properties.getMaxPoolSize()) {
+            executor.setCorePoolSize(core + 1);
+            log.info("📈 taskExecutor core pool grown to {} (mean queue wait {}ms)", core + 1, meanWait / 1_000_000);
+        } else if (meanWait < target / 4 && executor.getQueueSize() == 0 && core > properties.getMinPoolSize()) {
+            executor.setCorePoolSize(core - 1);
+            log.debug("📉 taskExecutor core pool shrunk to {}", core - 1);
+        }
+    }
+}
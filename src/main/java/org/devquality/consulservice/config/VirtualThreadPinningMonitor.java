@@ -0,0 +1,63 @@
+package org.devquality.consulservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events into Micrometer, so blocking calls that
+ * pin their carrier thread (e.g. I/O inside {@code synchronized}) show up in metrics.
+ */
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private final ApplicationConfig.Async properties;
+    private final Counter pinnedEvents;
+    private final Timer pinnedDuration;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(ApplicationConfig applicationConfig, MeterRegistry meterRegistry) {
+        this.properties = applicationConfig.getAsync();
+        this.pinnedEvents = Counter.builder("consul.executor.virtual.pinned")
+                .description("Virtual threads that stayed pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+        this.pinnedDuration = Timer.builder("consul.executor.virtual.pinned.duration")
+                .description("How long pinned virtual threads blocked their carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.getMode() != ApplicationConfig.Async.ExecutionMode.VIRTUAL || !properties.isPinningDetection()) {
+            return;
+        }
+
+        try {
+            stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(properties.getPinningThreshold());
+            stream.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinnedEvents.increment();
+                pinnedDuration.record(event.getDuration());
+                log.debug("📌 Virtual thread pinned for {}ms", event.getDuration().toMillis());
+            });
+            stream.startAsync();
+            log.info("📌 Virtual thread pinning detection enabled (threshold {}ms)",
+                    properties.getPinningThreshold().toMillis());
+        } catch (Exception e) {
+            log.warn("⚠️ Could not start virtual thread pinning detection: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.devquality.consulservice.exception;
+
+import java.time.Duration;
+
+public class ConsulOverloadedException extends LoadSheddingException {
+    public ConsulOverloadedException(int limit, Duration retryAfter) {
+        super(String.format("Too many concurrent Consul requests (limit %d), retry later", limit),
+                "CONSUL_OVERLOADED", retryAfter);
+    }
+}
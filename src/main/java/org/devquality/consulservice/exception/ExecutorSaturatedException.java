@@ -0,0 +1,10 @@
+package org.devquality.consulservice.exception;
+
+import java.time.Duration;
+
+public class ExecutorSaturatedException extends LoadSheddingException {
+    public ExecutorSaturatedException(String executorName, Duration retryAfter) {
+        super(String.format("Executor '%s' is saturated, retry later", executorName),
+                "EXECUTOR_SATURATED", retryAfter);
+    }
+}
@@ -2,6 +2,7 @@ package org.devquality.consulservice.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.devquality.consulservice.web.dtos.ApiResponseDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,6 +36,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, ex.getHttpStatus());
     }
 
+    @ExceptionHandler(LoadSheddingException.class)
+    public ResponseEntity<ApiResponseDto<Object>> handleLoadSheddingException(
+            LoadSheddingException ex, WebRequest request) {
+
+        log.warn("Load shed: {}", ex.getMessage());
+
+        ApiResponseDto<Object> response = ApiResponseDto.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .error(ex.getErrorCode())
+                .timestamp(LocalDateTime.now())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(ex.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponseDto<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -0,0 +1,19 @@
+package org.devquality.consulservice.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Work refused to protect the service or Consul; answered with 503 and a {@code Retry-After} hint.
+ */
+@Getter
+public abstract class LoadSheddingException extends ConsulServiceException {
+    private final Duration retryAfter;
+
+    protected LoadSheddingException(String message, String errorCode, Duration retryAfter) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, errorCode);
+        this.retryAfter = retryAfter;
+    }
+}
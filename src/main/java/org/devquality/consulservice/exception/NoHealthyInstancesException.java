@@ -0,0 +1,10 @@
+package org.devquality.consulservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class NoHealthyInstancesException extends ConsulServiceException {
+    public NoHealthyInstancesException(String serviceName) {
+        super(String.format("Service '%s' has no healthy instances", serviceName),
+                HttpStatus.SERVICE_UNAVAILABLE, "NO_HEALTHY_INSTANCES");
+    }
+}
@@ -0,0 +1,14 @@
+package org.devquality.consulservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Lookups for one service keep failing and its circuit breaker is open. Unlike load shedding
+ * this is about Consul's health, so callers may still answer from last known good data.
+ */
+public class ServiceCircuitOpenException extends ConsulServiceException {
+    public ServiceCircuitOpenException(String serviceName) {
+        super(String.format("Lookups for service '%s' are failing, its circuit breaker is open", serviceName),
+                HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_CIRCUIT_OPEN");
+    }
+}
@@ -0,0 +1,10 @@
+package org.devquality.consulservice.exception;
+
+import java.time.Duration;
+
+public class ServiceIsolatedException extends LoadSheddingException {
+    public ServiceIsolatedException(String serviceName, Duration retryAfter) {
+        super(String.format("Lookups for service '%s' are temporarily rejected: too many concurrent lookups", serviceName),
+                "SERVICE_ISOLATED", retryAfter);
+    }
+}
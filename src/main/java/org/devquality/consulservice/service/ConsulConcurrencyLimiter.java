@@ -0,0 +1,143 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.ConsulOverloadedException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Gradient-style adaptive concurrency limit for calls to the Consul agent. The limit
+ * follows the ratio between the long-term and the recent RTT: while latency stays near
+ * its baseline the limit grows by roughly its square root, and once the agent slows down
+ * it shrinks proportionally. Calls above the limit are rejected before reaching Consul.
+ * <p>
+ * Every short Consul read goes through it: lookups, registry re-reads and uncached health
+ * queries. Blocking watch queries are left out, they are held open for the whole wait and
+ * would read as a slow agent, and so is the connectivity probe, which must keep measuring
+ * Consul while we shed our own traffic.
+ */
+@Component
+@Slf4j
+public class ConsulConcurrencyLimiter {
+
+    private final ApplicationConfig.ConcurrencyLimit properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejections;
+    private final Timer rtt;
+
+    private final AtomicReference<State> state;
+
+    private volatile int currentLimit;
+
+    public ConsulConcurrencyLimiter(ApplicationConfig applicationConfig, MeterRegistry meterRegistry) {
+        this.properties = applicationConfig.getConcurrencyLimit();
+        this.state = new AtomicReference<>(new State(properties.getInitialLimit(), 0, 0));
+        this.currentLimit = properties.getInitialLimit();
+
+        Gauge.builder("consul.limiter.limit", this, limiter -> limiter.currentLimit)
+                .description("Concurrent Consul calls currently allowed")
+                .register(meterRegistry);
+        Gauge.builder("consul.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("Consul calls currently in flight")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("consul.limiter.rejections")
+                .description("Consul calls shed because the concurrency limit was reached")
+                .register(meterRegistry);
+        this.rtt = Timer.builder("consul.limiter.rtt")
+                .description("Round trip time of Consul calls admitted by the limiter")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        int allowed = currentLimit;
+        int inFlightAtStart = inFlight.incrementAndGet();
+        if (inFlightAtStart > allowed) {
+            inFlight.decrementAndGet();
+            rejections.increment();
+            throw new ConsulOverloadedException(allowed, properties.getRetryAfter());
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            T result = call.get();
+            dropped = false;
+            return result;
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - start, inFlightAtStart, dropped);
+        }
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        rtt.record(rttNanos, TimeUnit.NANOSECONDS);
+
+        // Pure update retried on contention, concurrent samples never block each other
+        State next = state.updateAndGet(current -> current.next(rttNanos, inFlightAtStart, dropped, properties));
+        int nextLimit = (int) next.limit();
+        if (nextLimit != currentLimit) {
+            log.debug("🚦 Consul concurrency limit {} -> {} (short RTT {}µs, long RTT {}µs)",
+                    currentLimit, nextLimit, (long) next.shortRttNanos() / 1000, (long) next.longRttNanos() / 1000);
+            currentLimit = nextLimit;
+        }
+    }
+
+    private static double ewma(double current, long sample, int window) {
+        if (current == 0) {
+            return sample;
+        }
+        double alpha = 2.0 / (window + 1);
+        return current + (sample - current) * alpha;
+    }
+
+    private record State(double limit, double shortRttNanos, double longRttNanos) {
+
+        State next(long rttNanos, int inFlightAtStart, boolean dropped, ApplicationConfig.ConcurrencyLimit properties) {
+            if (dropped) {
+                // Errors and timeouts are treated as overload, back off multiplicatively
+                return new State(Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio()),
+                        shortRttNanos, longRttNanos);
+            }
+
+            double shortRtt = ewma(shortRttNanos, rttNanos, properties.getShortWindow());
+            double longRtt = ewma(longRttNanos, rttNanos, properties.getLongWindow());
+
+            // Let the baseline recover quickly after a sustained slowdown
+            if (longRtt > shortRtt * 2) {
+                longRtt *= 0.95;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / shortRtt));
+
+            // Only grow when demand actually approaches the limit
+            double nextLimit = limit;
+            if (gradient < 1.0 || inFlightAtStart >= limit / 2) {
+                double target = limit * gradient + Math.sqrt(limit);
+                nextLimit = limit * (1 - properties.getSmoothing()) + target * properties.getSmoothing();
+                nextLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), nextLimit));
+            }
+            return new State(nextLimit, shortRtt, longRtt);
+        }
+    }
+}
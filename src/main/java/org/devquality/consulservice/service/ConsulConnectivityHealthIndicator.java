@@ -0,0 +1,34 @@
+package org.devquality.consulservice.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator view of {@link ConsulConnectivityProbe}: reports the last probe, never calls Consul.
+ * A slow or leaderless cluster is {@code DEGRADED} but still counts as up for readiness.
+ */
+@Component
+public class ConsulConnectivityHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED", "Consul reachable but slow or without a leader");
+
+    private final ConsulConnectivityProbe probe;
+
+    public ConsulConnectivityHealthIndicator(ConsulConnectivityProbe probe) {
+        this.probe = probe;
+    }
+
+    @Override
+    public Health health() {
+        ConsulConnectivityProbe.Result result = probe.getResult();
+        Status status = switch (result.status()) {
+            case UP -> Status.UP;
+            case DEGRADED -> DEGRADED;
+            case DOWN -> Status.DOWN;
+            case UNKNOWN -> Status.UNKNOWN;
+        };
+        return Health.status(status).withDetails(result.toDetails()).build();
+    }
+}
@@ -0,0 +1,213 @@
+package org.devquality.consulservice.service;
+
+import com.ecwid.consul.v1.ConsulClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks Consul leader and local agent reachability on its own thread and keeps the outcome,
+ * with rolling RTT percentiles, in a single volatile field. Health and status endpoints read
+ * that field and never call Consul themselves.
+ */
+@Component
+@Slf4j
+public class ConsulConnectivityProbe {
+
+    public enum Status { UNKNOWN, UP, DEGRADED, DOWN }
+
+    // A result older than this many intervals means the probe itself is stuck
+    private static final int STALE_AFTER_INTERVALS = 3;
+
+    private final ConsulClient consulClient;
+    private final ApplicationConfig.Probe properties;
+    private final Timer leaderRtt;
+    private final Timer agentRtt;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("consul-probe").daemon(true).factory());
+
+    private volatile Result result = Result.unknown();
+    private int consecutiveFailures;
+
+    public ConsulConnectivityProbe(ConsulClient consulClient,
+                                   ApplicationConfig applicationConfig,
+                                   MeterRegistry meterRegistry) {
+        this.consulClient = consulClient;
+        this.properties = applicationConfig.getProbe();
+        this.leaderRtt = rttTimer(meterRegistry, "leader");
+        this.agentRtt = rttTimer(meterRegistry, "agent");
+
+        Gauge.builder("consul.probe.status", this, probe -> probe.getResult().status().ordinal())
+                .description("Consul connectivity: 0 unknown, 1 up, 2 degraded, 3 down")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The last probe outcome, reported as {@code UNKNOWN} once it is older than a few probe
+     * intervals: a probe blocked on an unresponsive Consul must not keep reporting UP.
+     */
+    public Result getResult() {
+        Result current = result;
+        if (current.checkedAt() == null) {
+            return current;
+        }
+        Duration age = Duration.between(current.checkedAt(), Instant.now());
+        if (age.compareTo(properties.getInterval().multipliedBy(STALE_AFTER_INTERVALS)) <= 0) {
+            return current;
+        }
+        return new Result(Status.UNKNOWN, current.leader(), current.leaderRtt(), current.agentRtt(),
+                current.leaderRttP50(), current.leaderRttP95(), current.leaderRttP99(),
+                current.consecutiveFailures(), current.checkedAt(),
+                "No probe result for " + age.toSeconds() + "s, the probe is not completing");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("⏸️ Consul connectivity probe is disabled");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::probe, 0, properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("📡 Started Consul connectivity probe (every {}s)", properties.getInterval().toSeconds());
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void probe() {
+        String leader = null;
+        Long leaderNanos = null;
+        Long agentNanos = null;
+        String error = null;
+
+        try {
+            long start = System.nanoTime();
+            consulClient.getAgentSelf();
+            agentNanos = System.nanoTime() - start;
+            agentRtt.record(agentNanos, TimeUnit.NANOSECONDS);
+
+            start = System.nanoTime();
+            leader = consulClient.getStatusLeader().getValue();
+            leaderNanos = System.nanoTime() - start;
+            leaderRtt.record(leaderNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+
+        boolean reachable = leaderNanos != null;
+        boolean hasLeader = leader != null && !leader.isEmpty();
+        consecutiveFailures = reachable && hasLeader ? 0 : consecutiveFailures + 1;
+
+        HistogramSnapshot rtt = leaderRtt.takeSnapshot();
+        Status status;
+        if (reachable && hasLeader) {
+            status = percentile(rtt, 0.95) > properties.getSlowThreshold().toNanos() ? Status.DEGRADED : Status.UP;
+        } else if (consecutiveFailures < properties.getFailureThreshold()) {
+            // A single missed probe is not an outage yet
+            status = result.status() == Status.UNKNOWN ? Status.DEGRADED : result.status();
+        } else {
+            status = agentNanos != null ? Status.DEGRADED : Status.DOWN;
+        }
+        if (reachable && !hasLeader) {
+            error = "Consul cluster has no leader";
+        }
+
+        Result previous = result;
+        result = new Result(status, leader,
+                toDuration(leaderNanos), toDuration(agentNanos),
+                toDuration((long) percentile(rtt, 0.5)),
+                toDuration((long) percentile(rtt, 0.95)),
+                toDuration((long) percentile(rtt, 0.99)),
+                consecutiveFailures, Instant.now(), error);
+
+        if (previous.status() != status) {
+            if (status == Status.UP) {
+                log.info("✅ Consul connectivity is {} (leader {})", status, leader);
+            } else {
+                log.warn("⚠️ Consul connectivity is {}: {}", status, error != null ? error : "slow leader responses");
+            }
+        }
+    }
+
+    private Timer rttTimer(MeterRegistry meterRegistry, String target) {
+        return Timer.builder("consul.probe.rtt")
+                .description("Round-trip time of the background Consul connectivity probe")
+                .tag("target", target)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .distributionStatisticExpiry(properties.getWindow())
+                .distributionStatisticBufferLength(5)
+                .register(meterRegistry);
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private static Duration toDuration(Long nanos) {
+        return nanos != null ? Duration.ofNanos(nanos) : null;
+    }
+
+    /**
+     * Outcome of the last probe. RTTs are {@code null} when that call did not complete.
+     */
+    public record Result(Status status,
+                         String leader,
+                         Duration leaderRtt,
+                         Duration agentRtt,
+                         Duration leaderRttP50,
+                         Duration leaderRttP95,
+                         Duration leaderRttP99,
+                         int consecutiveFailures,
+                         Instant checkedAt,
+                         String error) {
+
+        static Result unknown() {
+            return new Result(Status.UNKNOWN, null, null, null, null, null, null, 0, null, null);
+        }
+
+        public Map<String, Object> toDetails() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", status.name());
+            details.put("leader", leader);
+            details.put("leader_rtt_ms", millis(leaderRtt));
+            details.put("agent_rtt_ms", millis(agentRtt));
+            details.put("leader_rtt_p50_ms", millis(leaderRttP50));
+            details.put("leader_rtt_p95_ms", millis(leaderRttP95));
+            details.put("leader_rtt_p99_ms", millis(leaderRttP99));
+            details.put("consecutive_failures", consecutiveFailures);
+            details.put("checked_at", checkedAt);
+            if (error != null) {
+                details.put("error", error);
+            }
+            return details;
+        }
+
+        private static Double millis(Duration duration) {
+            return duration != null ? duration.toNanos() / 1_000_000.0 : null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.devquality.consulservice.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the {@link ConsulService} hot paths. Tags only take values from the enums
+ * below and the circuit breaker group, never service names, so cardinality stays fixed
+ * however many services are registered.
+ */
+@Component
+public class ConsulMetrics {
+
+    public enum Operation {
+        LIST_SERVICES("list_services"),
+        GET_INSTANCES("get_instances"),
+        SERVICE_STATS("service_stats");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Source {
+        REGISTRY("registry"),
+        CONSUL("consul"),
+        FALLBACK("fallback");
+
+        private final String tag;
+
+        Source(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final String PER_SERVICE_BREAKERS = "per-service";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Operation, Timer> successTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> errorTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Source, Counter>> sources = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> fallbacksServed = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> fallbacksMissed = new EnumMap<>(Operation.class);
+    private final Map<Source, DistributionSummary> instanceListSizes = new EnumMap<>(Source.class);
+
+    public ConsulMetrics(MeterRegistry meterRegistry, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (Operation operation : Operation.values()) {
+            successTimers.put(operation, timer(operation, "success"));
+            errorTimers.put(operation, timer(operation, "error"));
+            fallbacksServed.put(operation, fallbackCounter(operation, "served"));
+            fallbacksMissed.put(operation, fallbackCounter(operation, "missed"));
+
+            Map<Source, Counter> bySource = new EnumMap<>(Source.class);
+            for (Source source : Source.values()) {
+                bySource.put(source, Counter.builder("consul.lookup.source")
+                        .description("Where lookups were answered from: local registry, Consul, or last known good data")
+                        .tag("operation", operation.tag)
+                        .tag("source", source.tag)
+                        .register(meterRegistry));
+            }
+            sources.put(operation, bySource);
+        }
+
+        for (Source source : Source.values()) {
+            instanceListSizes.put(source, DistributionSummary.builder("consul.instances.list.size")
+                    .description("Number of instances returned per service lookup")
+                    .baseUnit("instances")
+                    .tag("source", source.tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::countTransitions);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> countTransitions(event.getAddedEntry()));
+    }
+
+    public <T> T time(Operation operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            successTimers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            errorTimers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public void answeredFrom(Operation operation, Source source) {
+        sources.get(operation).get(source).increment();
+    }
+
+    public void fallback(Operation operation, boolean served) {
+        (served ? fallbacksServed : fallbacksMissed).get(operation).increment();
+        if (served) {
+            answeredFrom(operation, Source.FALLBACK);
+        }
+    }
+
+    public void instanceListSize(Source source, int size) {
+        instanceListSizes.get(source).record(size);
+    }
+
+    private Timer timer(Operation operation, String outcome) {
+        return Timer.builder("consul.operation")
+                .description("Latency of Consul operations issued by ConsulService")
+                .tag("operation", operation.tag)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Counter fallbackCounter(Operation operation, String result) {
+        return Counter.builder("consul.fallbacks")
+                .description("Fallbacks to last known good data, served or missed because none existed")
+                .tag("operation", operation.tag)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void countTransitions(CircuitBreaker circuitBreaker) {
+        String group = circuitBreaker.getName().startsWith(ServiceIsolation.NAME_PREFIX)
+                ? PER_SERVICE_BREAKERS : circuitBreaker.getName();
+        circuitBreaker.getEventPublisher().onStateTransition(event -> Counter.builder("consul.circuitbreaker.transitions")
+                .description("Circuit breaker state transitions")
+                .tag("group", group)
+                .tag("from", event.getStateTransition().getFromState().name())
+                .tag("to", event.getStateTransition().getToState().name())
+                .register(meterRegistry)
+                .increment());
+    }
+}
@@ -5,19 +5,28 @@ import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
 import org.devquality.consulservice.exception.ConsulConnectionException;
+import org.devquality.consulservice.exception.ConsulServiceException;
+import org.devquality.consulservice.exception.LoadSheddingException;
 import org.devquality.consulservice.exception.ServiceNotFoundException;
 import org.devquality.consulservice.exception.ServiceRegistrationException;
+import org.devquality.consulservice.service.ConsulMetrics.Operation;
+import org.devquality.consulservice.service.ConsulMetrics.Source;
 import org.devquality.consulservice.web.dtos.*;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.cloud.consul.discovery.ConsulDiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,80 +35,183 @@ import java.util.stream.Collectors;
 public class ConsulService {
 
     private final DiscoveryClient discoveryClient;
+    private final ServiceRegistryCache registryCache;
+    private final ServiceLookupFanOut lookupFanOut;
+    private final ServiceStatsAggregator statsAggregator;
+    private final SingleFlight<String, List<String>> serviceListFlight;
+    private final SingleFlight<String, List<ServiceInstance>> instanceLookupFlight;
+    private final LastKnownGoodCache<String, List<String>> servicesFallbackCache;
+    private final LastKnownGoodCache<String, List<ServiceInstanceDto>> instancesFallbackCache;
+    private final ExecutorService consulExecutor;
+    private final ConsulConcurrencyLimiter concurrencyLimiter;
+    private final HedgedInstanceLookup hedgedLookup;
+    private final ServiceIsolation serviceIsolation;
+    private final ConsulMetrics metrics;
+    private final ServiceHealthCache healthCache;
+    private final ApplicationConfig applicationConfig;
+    private volatile ServiceNameIndex serviceNameIndex;
     private static final String CIRCUIT_BREAKER_NAME = "consul-service";
+    private static final String ALL_SERVICES = "*";
 
     @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "getRegisteredServicesFallback")
     @Retry(name = CIRCUIT_BREAKER_NAME)
     @TimeLimiter(name = CIRCUIT_BREAKER_NAME)
-    public CompletableFuture<List<String>> getRegisteredServicesAsync() {
+    public CompletableFuture<Served<List<String>>> getRegisteredServicesAsync() {
+        if (registryCache.isReady()) {
+            metrics.answeredFrom(Operation.LIST_SERVICES, Source.REGISTRY);
+            return CompletableFuture.completedFuture(fromRegistry(registryCache.getServices()));
+        }
+
         return CompletableFuture.supplyAsync(() -> {
             try {
-                List<String> services = discoveryClient.getServices();
-                log.info("📋 Found {} services in Consul: {}", services.size(), services);
-                return services;
+                List<String> services = fetchServices();
+                metrics.answeredFrom(Operation.LIST_SERVICES, Source.CONSUL);
+                log.info("📋 Found {} services in Consul", services.size());
+                return Served.fresh(services);
             } catch (Exception e) {
                 log.error("❌ Error retrieving services from Consul: {}", e.getMessage());
-                throw new ConsulConnectionException("Failed to retrieve services from Consul", e);
+                throw unavailable("Failed to retrieve services from Consul", e);
             }
-        });
+        }, consulExecutor);
     }
 
     public List<String> getRegisteredServices() {
+        return lookupRegisteredServices().value();
+    }
+
+    public Served<List<String>> lookupRegisteredServices() {
+        if (registryCache.isReady()) {
+            metrics.answeredFrom(Operation.LIST_SERVICES, Source.REGISTRY);
+            return fromRegistry(registryCache.getServices());
+        }
+
         try {
-            List<String> services = discoveryClient.getServices();
-            log.info("📋 Found {} services in Consul: {}", services.size(), services);
-            return services;
+            List<String> services = fetchServices();
+            metrics.answeredFrom(Operation.LIST_SERVICES, Source.CONSUL);
+            log.info("📋 Found {} services in Consul", services.size());
+            return Served.fresh(services);
         } catch (Exception e) {
             log.error("❌ Error retrieving services from Consul: {}", e.getMessage());
-            throw new ConsulConnectionException("Failed to retrieve services from Consul", e);
+            if (isLoadShed(e)) {
+                throw unavailable("Failed to retrieve services from Consul", e);
+            }
+            Optional<LastKnownGoodCache.Entry<List<String>>> stale = servicesFallbackCache.serveStale(ALL_SERVICES);
+            metrics.fallback(Operation.LIST_SERVICES, stale.isPresent());
+            return stale.map(ConsulService::served)
+                    .orElseThrow(() -> unavailable("Failed to retrieve services from Consul", e));
         }
     }
 
-    @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "getServiceInstancesFallback")
-    @Retry(name = CIRCUIT_BREAKER_NAME)
+    /**
+     * One page of the services list, optionally filtered by name prefix and substring.
+     */
+    public Served<ServiceNameIndex.Page> getRegisteredServices(String prefix, String contains, String cursor, Integer limit) {
+        ApplicationConfig.ServiceListing listing = applicationConfig.getServiceListing();
+        int pageSize = limit != null ? limit : listing.getDefaultLimit();
+        if (pageSize < 1 || pageSize > listing.getMaxLimit()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + listing.getMaxLimit());
+        }
+
+        Served<List<String>> services = lookupRegisteredServices();
+        ServiceNameIndex index = serviceNameIndex;
+        if (index == null || !index.isBuiltFrom(services.value())) {
+            // Rebuilt once per services list, the registry hands out the same list until it changes
+            index = ServiceNameIndex.of(services.value());
+            serviceNameIndex = index;
+        }
+        return new Served<>(index.page(prefix, contains, cursor, pageSize), services.staleSince());
+    }
+
     public List<ServiceInstanceDto> getServiceInstances(String serviceName) {
+        return lookupServiceInstances(serviceName).value();
+    }
+
+    public Served<List<ServiceInstanceDto>> lookupServiceInstances(String serviceName) {
         if (serviceName == null || serviceName.trim().isEmpty()) {
             throw new IllegalArgumentException("Service name cannot be null or empty");
         }
 
-        try {
-            List<ServiceInstance> instances = discoveryClient.getInstances(serviceName);
-
-            if (instances.isEmpty()) {
-                log.warn("⚠️ No instances found for service: {}", serviceName);
+        if (registryCache.isReady()) {
+            List<ServiceInstanceDto> cached = registryCache.getInstances(serviceName);
+            if (cached.isEmpty()) {
                 throw new ServiceNotFoundException(serviceName);
             }
+            metrics.answeredFrom(Operation.GET_INSTANCES, Source.REGISTRY);
+            metrics.instanceListSize(Source.REGISTRY, cached.size());
+            return fromRegistry(cached);
+        }
 
-            List<ServiceInstanceDto> instanceDtos = instances.stream()
-                    .map(this::mapToServiceInstanceDto)
-                    .collect(Collectors.toList());
+        try {
+            List<ServiceInstanceDto> instanceDtos = serviceIsolation.execute(serviceName, () -> fetchInstances(serviceName));
+            metrics.answeredFrom(Operation.GET_INSTANCES, Source.CONSUL);
+            metrics.instanceListSize(Source.CONSUL, instanceDtos.size());
 
             log.info("🔍 Found {} instances for service '{}': {}",
                     instanceDtos.size(), serviceName,
                     instanceDtos.stream().map(ServiceInstanceDto::getInstanceId).collect(Collectors.toList()));
 
-            return instanceDtos;
+            return Served.fresh(instanceDtos);
 
         } catch (ServiceNotFoundException e) {
             throw e;
         } catch (Exception e) {
             log.error("❌ Error retrieving instances for service '{}': {}", serviceName, e.getMessage());
-            throw new ConsulConnectionException("Failed to retrieve service instances", e);
+            return getServiceInstancesFallback(serviceName, e);
         }
     }
 
+    public Map<String, ServiceInstancesResultDto> getServiceInstancesBatch(List<String> serviceNames) {
+        Set<String> distinctNames = new LinkedHashSet<>(serviceNames);
+
+        Map<String, ServiceLookupFanOut.LookupResult<Served<List<ServiceInstanceDto>>>> lookups =
+                lookupFanOut.lookup(distinctNames, this::lookupServiceInstances);
+
+        Map<String, ServiceInstancesResultDto> results = new LinkedHashMap<>();
+        lookups.forEach((serviceName, lookup) -> results.put(serviceName, toBatchResult(serviceName, lookup)));
+
+        long failed = results.values().stream().filter(result -> !result.getSuccess()).count();
+        log.info("📦 Batch lookup of {} services completed, {} failed", results.size(), failed);
+        return results;
+    }
+
     public ServiceStatsDto getServiceStats() {
+        return getPublishedServiceStats().stats();
+    }
+
+    /**
+     * Stats with the version their ETag is derived from, taken in one read so a body never
+     * goes out under the ETag of other stats.
+     */
+    public ServiceStatsAggregator.Published getPublishedServiceStats() {
+        ServiceStatsAggregator.Published published = registryCache.isReady() ? statsAggregator.getPublished() : null;
+        if (published != null) {
+            metrics.answeredFrom(Operation.SERVICE_STATS, Source.REGISTRY);
+            return published;
+        }
+
+        metrics.answeredFrom(Operation.SERVICE_STATS, Source.CONSUL);
+        return new ServiceStatsAggregator.Published(metrics.time(Operation.SERVICE_STATS, this::computeServiceStats), -1);
+    }
+
+    private ServiceStatsDto computeServiceStats() {
         try {
             List<String> services = getRegisteredServices();
 
             Map<String, Integer> instancesByService = new HashMap<>();
             Map<String, Integer> servicesByStatus = new HashMap<>();
+            List<String> partialServices = new ArrayList<>();
             int totalInstances = 0;
             int healthyServices = 0;
 
-            for (String serviceName : services) {
-                try {
-                    List<ServiceInstanceDto> instances = getServiceInstances(serviceName);
+            Map<String, ServiceLookupFanOut.LookupResult<List<ServiceInstanceDto>>> lookups =
+                    lookupFanOut.lookup(services, this::getServiceInstances);
+
+            for (var entry : lookups.entrySet()) {
+                String serviceName = entry.getKey();
+                var lookup = entry.getValue();
+
+                if (lookup.isSuccess()) {
+                    List<ServiceInstanceDto> instances = lookup.value();
                     instancesByService.put(serviceName, instances.size());
                     totalInstances += instances.size();
 
@@ -113,18 +225,30 @@ public class ConsulService {
                     } else {
                         servicesByStatus.merge("UNHEALTHY", 1, Integer::sum);
                     }
-                } catch (ServiceNotFoundException e) {
+                } else if (lookup.error() instanceof ServiceNotFoundException) {
                     servicesByStatus.merge("UNAVAILABLE", 1, Integer::sum);
+                } else {
+                    // Timed out or failed: report it instead of failing the whole response
+                    partialServices.add(serviceName);
+                    servicesByStatus.merge("UNKNOWN", 1, Integer::sum);
                 }
             }
 
+            if (!partialServices.isEmpty()) {
+                log.warn("⚠️ Service stats are partial, {} of {} services did not answer in time: {}",
+                        partialServices.size(), services.size(), partialServices);
+            }
+
             return ServiceStatsDto.builder()
                     .totalServices(services.size())
                     .healthyServices(healthyServices)
-                    .unhealthyServices(services.size() - healthyServices)
+                    .unhealthyServices(services.size() - healthyServices - partialServices.size())
+                    .unknownServices(partialServices.size())
                     .totalInstances(totalInstances)
                     .servicesByStatus(servicesByStatus)
                     .instancesByService(instancesByService)
+                    .partial(!partialServices.isEmpty())
+                    .partialServices(partialServices)
                     .lastUpdated(LocalDateTime.now())
                     .build();
 
@@ -153,6 +277,21 @@ public class ConsulService {
         }
     }
 
+    public List<ServiceHealthDto> getServiceHealth(String serviceName) {
+        if (serviceName == null || serviceName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Service name cannot be null or empty");
+        }
+
+        try {
+            return healthCache.getHealth(serviceName);
+        } catch (ServiceNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("❌ Error retrieving health checks for service '{}': {}", serviceName, e.getMessage());
+            throw unavailable(String.format("Failed to retrieve health checks for service '%s'", serviceName), e);
+        }
+    }
+
     public boolean isServiceHealthy(String serviceName) {
         try {
             List<ServiceInstanceDto> instances = getServiceInstances(serviceName);
@@ -166,36 +305,162 @@ public class ConsulService {
         }
     }
 
+    /**
+     * Weak ETag for the services list, or {@code null} when it cannot be validated. Only the
+     * registry snapshot is versioned, lookups served by Consul or the fallback never are.
+     */
+    public String getServicesEtag() {
+        if (!registryCache.isReady()) {
+            return null;
+        }
+        return "W/\"services-" + registryCache.getSnapshot().servicesIndex() + "\"";
+    }
+
+    public String getInstancesEtag(String serviceName) {
+        if (!registryCache.isReady()) {
+            return null;
+        }
+        long modifyIndex = registryCache.getSnapshot().modifyIndexOf(serviceName);
+        return modifyIndex < 0 ? null : "W/\"" + serviceName + "-" + modifyIndex + "\"";
+    }
+
+    @Scheduled(fixedDelayString = "${app.fallback.revalidate-interval:PT10S}")
+    public void revalidateStaleEntries() {
+        if (!servicesFallbackCache.staleKeys().isEmpty()) {
+            try {
+                fetchServices();
+                log.info("✅ Consul is reachable again, services list refreshed");
+            } catch (Exception e) {
+                log.debug("Services list still stale: {}", e.getMessage());
+                return;
+            }
+        }
+
+        for (String serviceName : instancesFallbackCache.staleKeys()) {
+            try {
+                fetchInstances(serviceName);
+                log.info("✅ Instances for service '{}' refreshed after fallback", serviceName);
+            } catch (ServiceNotFoundException e) {
+                instancesFallbackCache.invalidate(serviceName);
+            } catch (Exception e) {
+                log.debug("Instances for service '{}' still stale: {}", serviceName, e.getMessage());
+                return;
+            }
+        }
+    }
+
     // Fallback methods for Circuit Breaker
-    public CompletableFuture<List<String>> getRegisteredServicesFallback(Exception ex) {
+    public CompletableFuture<Served<List<String>>> getRegisteredServicesFallback(Exception ex) {
+        if (isLoadShed(ex)) {
+            return CompletableFuture.failedFuture(unavailable("Consul calls are being shed", ex));
+        }
         log.warn("🔄 Using fallback for getRegisteredServices due to: {}", ex.getMessage());
-        return CompletableFuture.completedFuture(Arrays.asList("consul", "config-server")); // Default services
+        Optional<LastKnownGoodCache.Entry<List<String>>> stale = servicesFallbackCache.serveStale(ALL_SERVICES);
+        metrics.fallback(Operation.LIST_SERVICES, stale.isPresent());
+        return stale.map(entry -> CompletableFuture.completedFuture(served(entry)))
+                .orElseGet(() -> CompletableFuture.failedFuture(
+                        unavailable("Consul is unavailable and no last known services list exists", ex)));
     }
 
-    public List<ServiceInstanceDto> getServiceInstancesFallback(String serviceName, Exception ex) {
+    public Served<List<ServiceInstanceDto>> getServiceInstancesFallback(String serviceName, Exception ex) {
+        if (ex instanceof ServiceNotFoundException || ex instanceof IllegalArgumentException) {
+            throw (RuntimeException) ex;
+        }
+        if (isLoadShed(ex)) {
+            // Shedding is about our own capacity, not Consul's health: answer 503 rather than stale data
+            throw unavailable(String.format("Failed to retrieve instances for service '%s'", serviceName), ex);
+        }
+
         log.warn("🔄 Using fallback for getServiceInstances('{}') due to: {}", serviceName, ex.getMessage());
-        return Collections.emptyList();
+        Optional<LastKnownGoodCache.Entry<List<ServiceInstanceDto>>> stale = instancesFallbackCache.serveStale(serviceName);
+        metrics.fallback(Operation.GET_INSTANCES, stale.isPresent());
+        stale.ifPresent(entry -> metrics.instanceListSize(Source.FALLBACK, entry.value().size()));
+        return stale.map(ConsulService::served)
+                .orElseThrow(() -> unavailable(
+                        String.format("Consul is unavailable and no last known instances exist for service '%s'", serviceName), ex));
     }
 
     // Private helper methods
-    private ServiceInstanceDto mapToServiceInstanceDto(ServiceInstance instance) {
-        return ServiceInstanceDto.builder()
-                .serviceId(instance.getServiceId())
-                .instanceId(instance.getInstanceId())
-                .host(instance.getHost())
-                .port(instance.getPort())
-                .uri(instance.getUri())
-                .secure(instance.isSecure())
-                .metadata(instance.getMetadata())
-                .status(getInstanceStatus(instance))
-                .scheme(instance.getScheme())
+    private List<String> fetchServices() {
+        List<String> services = serviceListFlight.execute(ALL_SERVICES,
+                () -> metrics.time(Operation.LIST_SERVICES, () -> concurrencyLimiter.call(discoveryClient::getServices)));
+        servicesFallbackCache.put(ALL_SERVICES, services);
+        return services;
+    }
+
+    private List<ServiceInstanceDto> fetchInstances(String serviceName) {
+        List<ServiceInstance> instances = instanceLookupFlight.execute(serviceName,
+                () -> metrics.time(Operation.GET_INSTANCES, () -> concurrencyLimiter.call(() -> hedgedLookup.isEnabled()
+                        ? hedgedLookup.getInstances(serviceName)
+                        : discoveryClient.getInstances(serviceName))));
+
+        if (instances.isEmpty()) {
+            log.warn("⚠️ No instances found for service: {}", serviceName);
+            throw new ServiceNotFoundException(serviceName);
+        }
+
+        List<ServiceInstanceDto> instanceDtos = instances.stream()
+                .map(ServiceInstanceMapper::toDto)
+                .collect(Collectors.toList());
+        instancesFallbackCache.put(serviceName, instanceDtos);
+        return instanceDtos;
+    }
+
+    // Load shedding keeps its 503 and Retry-After, anything else is reported as a connection failure
+    private static RuntimeException unavailable(String message, Exception cause) {
+        if (cause instanceof LoadSheddingException loadShed) {
+            return loadShed;
+        }
+        return cause.getCause() instanceof LoadSheddingException loadShed
+                ? loadShed
+                : new ConsulConnectionException(message, cause);
+    }
+
+    private static boolean isLoadShed(Exception e) {
+        return e instanceof LoadSheddingException || e.getCause() instanceof LoadSheddingException;
+    }
+
+    private <T> Served<T> fromRegistry(T value) {
+        return new Served<>(value, toLocalDateTime(registryCache.getStaleSince()));
+    }
+
+    private static <T> Served<T> served(LastKnownGoodCache.Entry<T> entry) {
+        return new Served<>(entry.value(), toLocalDateTime(entry.storedAt()));
+    }
+
+    private ServiceInstancesResultDto toBatchResult(String serviceName,
+                                                    ServiceLookupFanOut.LookupResult<Served<List<ServiceInstanceDto>>> lookup) {
+        if (lookup.isSuccess()) {
+            LocalDateTime staleSince = lookup.value().staleSince();
+            return ServiceInstancesResultDto.builder()
+                    .success(true)
+                    .instances(lookup.value().value())
+                    .stale(staleSince != null ? true : null)
+                    .staleSince(staleSince)
+                    .build();
+        }
+
+        if (lookup.timedOut()) {
+            return ServiceInstancesResultDto.builder()
+                    .success(false)
+                    .error("TIMEOUT")
+                    .message(String.format("Lookup for service '%s' did not complete in time", serviceName))
+                    .build();
+        }
+
+        RuntimeException error = lookup.error();
+        String errorCode = error instanceof ConsulServiceException consulError ? consulError.getErrorCode()
+                : error instanceof IllegalArgumentException ? "ILLEGAL_ARGUMENT"
+                : "INTERNAL_SERVER_ERROR";
+        return ServiceInstancesResultDto.builder()
+                .success(false)
+                .error(errorCode)
+                .message(error.getMessage())
                 .build();
     }
 
-    private String getInstanceStatus(ServiceInstance instance) {
-        // Try to get status from metadata, default to "UP" if not available
-        String status = instance.getMetadata().get("status");
-        return status != null ? status : "UP";
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
     }
 
     private void validateServiceRegistration(ServiceRegistrationDto registrationDto) {
@@ -0,0 +1,232 @@
+package org.devquality.consulservice.service;
+
+import com.ecwid.consul.transport.TLSConfig;
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.health.HealthServicesRequest;
+import com.ecwid.consul.v1.health.model.HealthService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.ConsulConnectionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.consul.ConsulProperties;
+import org.springframework.cloud.consul.discovery.ConsulDiscoveryProperties;
+import org.springframework.cloud.consul.discovery.ConsulServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instance lookups raced across several Consul agents. The configured agent is asked
+ * first; when it has not answered after the recent p95 latency, the same query goes to
+ * another agent and the first successful response wins, the other one is cancelled.
+ * Hedges draw from a token budget refilled by primary requests, so they add at most
+ * {@code budget-percent} extra load. Queries carry the same datacenter, tags and ACL token
+ * as the discovery client's own, and extra agents use the same TLS settings.
+ */
+@Component
+@Slf4j
+public class HedgedInstanceLookup {
+
+    private static final int DEFAULT_CONSUL_PORT = 8500;
+
+    private final ApplicationConfig.Hedging properties;
+    private final ConsulDiscoveryProperties discoveryProperties;
+    private final ExecutorService executor;
+    private final List<Agent> agents = new ArrayList<>();
+    private final AtomicInteger nextHedgeAgent = new AtomicInteger();
+
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+    private final Counter hedgesIssued;
+    private final Counter budgetExhausted;
+
+    // Guarded by this
+    private final long[] latencies;
+    private int samples;
+    private int sinceRecompute;
+    private int cursor;
+    private double budgetTokens;
+
+    private volatile long hedgeDelayNanos;
+
+    public HedgedInstanceLookup(ConsulClient consulClient,
+                                ConsulProperties consulProperties,
+                                ConsulDiscoveryProperties discoveryProperties,
+                                @Qualifier("consulExecutor") ExecutorService executor,
+                                ApplicationConfig applicationConfig,
+                                MeterRegistry meterRegistry) {
+        this.properties = applicationConfig.getHedging();
+        this.discoveryProperties = discoveryProperties;
+        this.executor = executor;
+        this.latencies = new long[properties.getWindowSize()];
+        this.hedgeDelayNanos = properties.getMaxDelay().toNanos();
+        this.budgetTokens = properties.getMaxBurst();
+
+        agents.add(new Agent("primary", consulClient));
+        for (String agent : properties.getAgents()) {
+            URI uri = URI.create(agent);
+            int port = uri.getPort() != -1 ? uri.getPort() : DEFAULT_CONSUL_PORT;
+            agents.add(new Agent(uri.getHost() + ":" + port,
+                    createClient(uri.getScheme() + "://" + uri.getHost(), port, consulProperties.getTls())));
+        }
+
+        this.primaryWins = Counter.builder("consul.hedge.wins").tag("attempt", "primary")
+                .description("Hedged lookups answered first by the primary agent")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("consul.hedge.wins").tag("attempt", "hedge")
+                .description("Hedged lookups answered first by the hedge agent")
+                .register(meterRegistry);
+        this.hedgesIssued = Counter.builder("consul.hedge.issued")
+                .description("Hedge requests sent to a second agent")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("consul.hedge.budget.exhausted")
+                .description("Hedges skipped because the hedge budget was spent")
+                .register(meterRegistry);
+        Gauge.builder("consul.hedge.delay", this, lookup -> lookup.hedgeDelayNanos / 1_000_000.0)
+                .description("Current hedge delay in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        if (isEnabled()) {
+            log.info("🏇 Hedged instance lookups enabled across {} Consul agents", agents.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && agents.size() > 1;
+    }
+
+    public List<ServiceInstance> getInstances(String serviceName) {
+        ExecutorCompletionService<List<ServiceInstance>> race = new ExecutorCompletionService<>(executor);
+        Map<Future<List<ServiceInstance>>, Attempt> pending = new HashMap<>();
+        pending.put(race.submit(() -> query(agents.get(0), serviceName)),
+                new Attempt(agents.get(0), false, System.nanoTime()));
+        deposit();
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+
+        boolean hedged = false;
+        RuntimeException failure = null;
+        try {
+            while (!pending.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                Future<List<ServiceInstance>> done = race.poll(
+                        hedged ? remaining : Math.min(hedgeDelayNanos, remaining), TimeUnit.NANOSECONDS);
+
+                if (done == null) {
+                    if (hedged || remaining <= hedgeDelayNanos) {
+                        throw new ConsulConnectionException(String.format(
+                                "No Consul agent answered the lookup of '%s' within %dms",
+                                serviceName, properties.getTimeout().toMillis()));
+                    }
+                    hedged = true;
+                    hedge(race, pending, serviceName);
+                    continue;
+                }
+
+                Attempt attempt = pending.remove(done);
+                try {
+                    List<ServiceInstance> instances = done.get();
+                    record(System.nanoTime() - attempt.startedAt());
+                    (attempt.hedge() ? hedgeWins : primaryWins).increment();
+                    return instances;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    failure = cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                    log.warn("⚠️ Consul agent {} failed to look up '{}': {}",
+                            attempt.agent().name(), serviceName, cause.getMessage());
+                    if (!hedged) {
+                        // The primary failed before the hedge delay, try another agent right away
+                        hedged = true;
+                        hedge(race, pending, serviceName);
+                    }
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsulConnectionException("Interrupted while waiting for Consul agents", e);
+        } finally {
+            pending.keySet().forEach(loser -> loser.cancel(true));
+        }
+    }
+
+    private void hedge(ExecutorCompletionService<List<ServiceInstance>> race,
+                       Map<Future<List<ServiceInstance>>, Attempt> pending,
+                       String serviceName) {
+        if (!withdraw()) {
+            budgetExhausted.increment();
+            return;
+        }
+        Agent agent = agents.get(1 + Math.floorMod(nextHedgeAgent.getAndIncrement(), agents.size() - 1));
+        pending.put(race.submit(() -> query(agent, serviceName)), new Attempt(agent, true, System.nanoTime()));
+        hedgesIssued.increment();
+        log.debug("🏇 Hedging lookup of '{}' to Consul agent {}", serviceName, agent.name());
+    }
+
+    private List<ServiceInstance> query(Agent agent, String serviceName) {
+        String datacenter = discoveryProperties.getDatacenters().get(serviceName);
+        HealthServicesRequest request = HealthServicesRequest.newBuilder()
+                .setPassing(discoveryProperties.isQueryPassing())
+                .setTags(discoveryProperties.getQueryTagsForService(serviceName))
+                .setToken(discoveryProperties.getAclToken())
+                .setQueryParams(datacenter != null ? new QueryParams(datacenter) : QueryParams.DEFAULT)
+                .build();
+        List<HealthService> healthServices = agent.client().getHealthServices(serviceName, request).getValue();
+        return healthServices.stream()
+                .map(healthService -> (ServiceInstance) new ConsulServiceInstance(healthService, serviceName))
+                .toList();
+    }
+
+    // Same TLS settings as the auto-configured client, see spring.cloud.consul.tls
+    private static ConsulClient createClient(String host, int port, ConsulProperties.TLSConfig tls) {
+        if (tls == null) {
+            return new ConsulClient(host, port);
+        }
+        return new ConsulClient(host, port, new TLSConfig(tls.getKeyStoreInstanceType(),
+                tls.getCertificatePath(), tls.getCertificatePassword(),
+                tls.getKeyStorePath(), tls.getKeyStorePassword()));
+    }
+
+    private synchronized void deposit() {
+        budgetTokens = Math.min(properties.getMaxBurst(), budgetTokens + properties.getBudgetPercent() / 100);
+    }
+
+    private synchronized boolean withdraw() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens--;
+        return true;
+    }
+
+    private synchronized void record(long latencyNanos) {
+        latencies[cursor] = latencyNanos;
+        cursor = (cursor + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+
+        // Re-derive the delay every 64 samples rather than sorting the window per request
+        if (++sinceRecompute == 64) {
+            sinceRecompute = 0;
+            int size = samples;
+            long[] window = Arrays.copyOf(latencies, size);
+            Arrays.sort(window);
+            long percentile = window[Math.min(size - 1, (int) Math.ceil(properties.getPercentile() * size) - 1)];
+            hedgeDelayNanos = Math.max(properties.getMinDelay().toNanos(),
+                    Math.min(properties.getMaxDelay().toNanos(), percentile));
+        }
+    }
+
+    private record Agent(String name, ConsulClient client) {
+    }
+
+    private record Attempt(Agent agent, boolean hedge, long startedAt) {
+    }
+}
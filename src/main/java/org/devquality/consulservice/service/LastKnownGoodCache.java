@@ -0,0 +1,93 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Last successful result per key, used by circuit-breaker fallbacks to keep serving
+ * routing data while Consul is unreachable. Entries expire after {@code ttl} and the
+ * least recently used entry is evicted once {@code maxEntries} is reached.
+ */
+public class LastKnownGoodCache<K, V> {
+
+    private final Duration ttl;
+    private final Map<K, Entry<V>> entries;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    public LastKnownGoodCache(String name, Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        Gauge.builder("consul.fallback.cache.size", this, LastKnownGoodCache::size)
+                .tag("name", name)
+                .register(meterRegistry);
+        this.staleHits = Counter.builder("consul.fallback.cache.requests")
+                .tag("name", name)
+                .tag("result", "stale")
+                .register(meterRegistry);
+        this.misses = Counter.builder("consul.fallback.cache.requests")
+                .tag("name", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, Instant.now(), null));
+    }
+
+    /**
+     * Returns the last known value for {@code key} and flags it as stale until the next
+     * {@link #put}. Expired entries are dropped. Callers report staleness from the returned
+     * entry, the flag only drives revalidation.
+     */
+    public synchronized Optional<Entry<V>> serveStale(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired(ttl)) {
+            entries.remove(key);
+            misses.increment();
+            return Optional.empty();
+        }
+        if (entry.staleSince() == null) {
+            entry = new Entry<>(entry.value(), entry.storedAt(), Instant.now());
+            entries.put(key, entry);
+        }
+        staleHits.increment();
+        return Optional.of(entry);
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized Set<K> staleKeys() {
+        Set<K> keys = new HashSet<>();
+        entries.forEach((key, entry) -> {
+            if (entry.staleSince() != null) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public record Entry<V>(V value, Instant storedAt, Instant staleSince) {
+
+        boolean isExpired(Duration ttl) {
+            return storedAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
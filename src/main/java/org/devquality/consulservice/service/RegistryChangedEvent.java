@@ -0,0 +1,31 @@
+package org.devquality.consulservice.service;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+
+import java.util.List;
+
+/**
+ * Published by {@link ServiceRegistryCache} after a new snapshot is swapped in.
+ * Only services whose instance list actually changed are listed in {@code changes}.
+ */
+public record RegistryChangedEvent(RegistrySnapshot previous,
+                                   RegistrySnapshot current,
+                                   List<ServiceChange> changes) {
+
+    /**
+     * Per-service delta. {@code previous} is {@code null} when the service was just
+     * registered, {@code current} is {@code null} when it left the catalog.
+     */
+    public record ServiceChange(String serviceName,
+                                List<ServiceInstanceDto> previous,
+                                List<ServiceInstanceDto> current) {
+
+        public boolean isAdded() {
+            return previous == null;
+        }
+
+        public boolean isRemoved() {
+            return current == null;
+        }
+    }
+}
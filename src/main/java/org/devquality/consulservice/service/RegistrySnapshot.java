@@ -0,0 +1,58 @@
+package org.devquality.consulservice.service;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the Consul catalog at a given {@code X-Consul-Index}.
+ * A new instance is published on every change, readers never see partial updates.
+ * {@code servicesIndex} and {@code modifyIndexes} record the index at which the service
+ * list, respectively each service's instances, last changed.
+ */
+public record RegistrySnapshot(long index,
+                               List<String> services,
+                               Map<String, List<ServiceInstanceDto>> instances,
+                               Instant refreshedAt,
+                               long servicesIndex,
+                               Map<String, Long> modifyIndexes) {
+
+    public static final RegistrySnapshot EMPTY = new RegistrySnapshot(-1L, List.of(), Map.of(), Instant.EPOCH);
+
+    public RegistrySnapshot {
+        services = List.copyOf(services);
+        instances = Map.copyOf(instances);
+        modifyIndexes = Map.copyOf(modifyIndexes);
+    }
+
+    /**
+     * Snapshot without change history, every service is considered modified at {@code index}.
+     */
+    public RegistrySnapshot(long index,
+                            List<String> services,
+                            Map<String, List<ServiceInstanceDto>> instances,
+                            Instant refreshedAt) {
+        this(index, services, instances, refreshedAt, index, uniformIndexes(instances, index));
+    }
+
+    public boolean isEmpty() {
+        return index < 0;
+    }
+
+    public List<ServiceInstanceDto> instancesOf(String serviceName) {
+        return instances.getOrDefault(serviceName, List.of());
+    }
+
+    public long modifyIndexOf(String serviceName) {
+        return modifyIndexes.getOrDefault(serviceName, -1L);
+    }
+
+    private static Map<String, Long> uniformIndexes(Map<String, List<ServiceInstanceDto>> instances, long index) {
+        Map<String, Long> indexes = new HashMap<>();
+        instances.keySet().forEach(serviceName -> indexes.put(serviceName, index));
+        return indexes;
+    }
+}
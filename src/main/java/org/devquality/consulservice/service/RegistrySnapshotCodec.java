@@ -0,0 +1,182 @@
+package org.devquality.consulservice.service;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary encoding of a {@link RegistrySnapshot}.
+ * <pre>
+ * header:  magic(int) version(short) index(long) refreshedAt(long) payloadLength(int) crc32(long)
+ * payload: serviceCount(int) { name, instanceCount(int) { instance } }
+ * instance: fields, metadataCount(int) { key, value }, tagCount(int) { tag }
+ * </pre>
+ * Strings are length-prefixed UTF-8, a length of -1 encodes {@code null}.
+ */
+final class RegistrySnapshotCodec {
+
+    static final int MAGIC = 0x43534E50; // "CSNP"
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private RegistrySnapshotCodec() {
+    }
+
+    static byte[] encode(RegistrySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+
+        payload.writeInt(snapshot.services().size());
+        for (String serviceName : snapshot.services()) {
+            List<ServiceInstanceDto> instances = snapshot.instancesOf(serviceName);
+            writeString(payload, serviceName);
+            payload.writeInt(instances.size());
+            for (ServiceInstanceDto instance : instances) {
+                writeInstance(payload, instance);
+            }
+        }
+        payload.flush();
+
+        byte[] body = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putLong(snapshot.index())
+                .putLong(snapshot.refreshedAt().toEpochMilli())
+                .putInt(body.length)
+                .putLong(crc.getValue())
+                .put(body);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a snapshot, returning {@code null} when the header, version or checksum do not match.
+     */
+    static RegistrySnapshot decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            return null;
+        }
+
+        long index = buffer.getLong();
+        Instant refreshedAt = Instant.ofEpochMilli(buffer.getLong());
+        int payloadLength = buffer.getInt();
+        long expectedCrc = buffer.getLong();
+
+        if (payloadLength < 0 || buffer.remaining() != payloadLength) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != expectedCrc) {
+            return null;
+        }
+
+        int serviceCount = buffer.getInt();
+        List<String> services = new ArrayList<>(serviceCount);
+        Map<String, List<ServiceInstanceDto>> instances = new HashMap<>(serviceCount * 2);
+        for (int i = 0; i < serviceCount; i++) {
+            String serviceName = readString(buffer);
+            int instanceCount = buffer.getInt();
+            List<ServiceInstanceDto> serviceInstances = new ArrayList<>(instanceCount);
+            for (int j = 0; j < instanceCount; j++) {
+                serviceInstances.add(readInstance(buffer));
+            }
+            services.add(serviceName);
+            instances.put(serviceName, List.copyOf(serviceInstances));
+        }
+
+        return new RegistrySnapshot(index, services, instances, refreshedAt);
+    }
+
+    private static void writeInstance(DataOutputStream out, ServiceInstanceDto instance) throws IOException {
+        writeString(out, instance.getServiceId());
+        writeString(out, instance.getInstanceId());
+        writeString(out, instance.getHost());
+        out.writeInt(instance.getPort() != null ? instance.getPort() : -1);
+        writeString(out, instance.getUri() != null ? instance.getUri().toString() : null);
+        out.writeByte(instance.getSecure() == null ? -1 : instance.getSecure() ? 1 : 0);
+        writeString(out, instance.getStatus());
+        writeString(out, instance.getScheme());
+
+        Map<String, String> metadata = instance.getMetadata() != null ? instance.getMetadata() : Map.of();
+        out.writeInt(metadata.size());
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+
+        List<String> tags = instance.getTags() != null ? instance.getTags() : List.of();
+        out.writeInt(tags.size());
+        for (String tag : tags) {
+            writeString(out, tag);
+        }
+    }
+
+    private static ServiceInstanceDto readInstance(ByteBuffer in) {
+        String serviceId = readString(in);
+        String instanceId = readString(in);
+        String host = readString(in);
+        int port = in.getInt();
+        String uri = readString(in);
+        byte secure = in.get();
+        String status = readString(in);
+        String scheme = readString(in);
+
+        int metadataCount = in.getInt();
+        Map<String, String> metadata = new LinkedHashMap<>(metadataCount * 2);
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(readString(in), readString(in));
+        }
+
+        int tagCount = in.getInt();
+        List<String> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(readString(in));
+        }
+
+        return ServiceInstanceDto.builder()
+                .serviceId(serviceId)
+                .instanceId(instanceId)
+                .host(host)
+                .port(port >= 0 ? port : null)
+                .uri(uri != null ? URI.create(uri) : null)
+                .secure(secure < 0 ? null : secure == 1)
+                .metadata(metadata)
+                .tags(tags)
+                .status(status)
+                .scheme(scheme)
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package org.devquality.consulservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Persists the registry snapshot to local disk so a restarted instance can answer from the
+ * previous catalog while the first blocking query is still in flight. The file's modification
+ * time is when Consul last confirmed its contents, and is what the max-age check uses.
+ */
+@Component
+@Slf4j
+public class RegistrySnapshotStore {
+
+    private final ServiceRegistryCache registryCache;
+    private final ApplicationConfig.Registry.Snapshot properties;
+
+    private volatile long lastWrittenIndex = -1;
+    private volatile Instant lastConfirmedAt = Instant.EPOCH;
+
+    public RegistrySnapshotStore(ServiceRegistryCache registryCache, ApplicationConfig applicationConfig) {
+        this.registryCache = registryCache;
+        this.properties = applicationConfig.getRegistry().getSnapshot();
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Path path = Path.of(properties.getPath());
+        if (!Files.isRegularFile(path)) {
+            log.info("💾 No registry snapshot found at {}, waiting for Consul", path);
+            return;
+        }
+
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            RegistrySnapshot snapshot = RegistrySnapshotCodec.decode(buffer);
+
+            if (snapshot == null) {
+                log.warn("⚠️ Ignoring registry snapshot {}: bad header, version or checksum", path);
+                return;
+            }
+
+            Instant confirmedAt = Files.getLastModifiedTime(path).toInstant();
+            Duration age = Duration.between(confirmedAt, Instant.now());
+            if (age.compareTo(properties.getMaxAge()) > 0) {
+                log.warn("⚠️ Ignoring registry snapshot {}: {} minutes old (max {})",
+                        path, age.toMinutes(), properties.getMaxAge().toMinutes());
+                return;
+            }
+
+            registryCache.seed(snapshot, confirmedAt);
+            lastWrittenIndex = snapshot.index();
+            log.info("💾 Restored registry snapshot with {} services at index {} in {}ms",
+                    snapshot.services().size(), snapshot.index(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+
+        } catch (Exception e) {
+            log.warn("⚠️ Could not read registry snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.registry.snapshot.write-interval:PT30S}")
+    public void persist() {
+        if (!properties.isEnabled() || !registryCache.isReady()) {
+            return;
+        }
+
+        RegistrySnapshot snapshot = registryCache.getSnapshot();
+        Instant confirmedAt = registryCache.getConfirmedAt();
+        Path path = Path.of(properties.getPath());
+        if (snapshot.index() == lastWrittenIndex) {
+            touch(path, confirmedAt);
+            return;
+        }
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(tmp, RegistrySnapshotCodec.encode(snapshot));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastWrittenIndex = snapshot.index();
+            lastConfirmedAt = Instant.now();
+            log.debug("💾 Registry snapshot at index {} written to {}", snapshot.index(), path);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not write registry snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Unchanged contents that Consul confirmed again only need a newer modification time
+    private void touch(Path path, Instant confirmedAt) {
+        if (!confirmedAt.isAfter(lastConfirmedAt) || !Files.isRegularFile(path)) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(confirmedAt));
+            lastConfirmedAt = confirmedAt;
+        } catch (IOException e) {
+            log.warn("⚠️ Could not touch registry snapshot {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.devquality.consulservice.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lookup result and its staleness, decided by the same call that produced the value.
+ * {@code staleSince} is when a value served from the last-known-good cache was fetched, or
+ * when Consul last confirmed a registry snapshot it has not answered for since; {@code null}
+ * for a fresh one.
+ */
+public record Served<T>(T value, LocalDateTime staleSince) {
+
+    static <T> Served<T> fresh(T value) {
+        return new Served<>(value, null);
+    }
+}
@@ -0,0 +1,237 @@
+package org.devquality.consulservice.service;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.HealthServicesRequest;
+import com.ecwid.consul.v1.health.model.Check;
+import com.ecwid.consul.v1.health.model.HealthService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.ServiceNotFoundException;
+import org.devquality.consulservice.web.dtos.ServiceHealthDto;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.consul.discovery.ConsulDiscoveryProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Every health check in the datacenter, kept current with a blocking query on
+ * {@code /v1/health/state/any}. When check statuses change, only the affected services are
+ * re-read into the {@link ServiceRegistryCache}, so instance status follows Consul within one
+ * long-poll instead of waiting for the catalog to change.
+ */
+@Component
+@Slf4j
+public class ServiceHealthCache {
+
+    private final ConsulClient consulClient;
+    private final ServiceRegistryCache registryCache;
+    private final ConsulDiscoveryProperties discoveryProperties;
+    private final ConsulConcurrencyLimiter concurrencyLimiter;
+    private final ApplicationConfig.Registry properties;
+    private final Counter watchErrors;
+    private final Counter servicesRefreshed;
+
+    private volatile Map<String, List<Check>> serviceChecks = Map.of();
+    private volatile Map<String, List<Check>> nodeChecks = Map.of();
+    private volatile boolean ready;
+    private volatile boolean running;
+    private Thread watchThread;
+
+    public ServiceHealthCache(ConsulClient consulClient,
+                              ServiceRegistryCache registryCache,
+                              ConsulDiscoveryProperties discoveryProperties,
+                              ConsulConcurrencyLimiter concurrencyLimiter,
+                              ApplicationConfig applicationConfig,
+                              MeterRegistry meterRegistry) {
+        this.consulClient = consulClient;
+        this.registryCache = registryCache;
+        this.discoveryProperties = discoveryProperties;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.properties = applicationConfig.getRegistry();
+
+        this.watchErrors = Counter.builder("consul.health.watch.errors")
+                .description("Failed blocking queries against the Consul health state")
+                .register(meterRegistry);
+        this.servicesRefreshed = Counter.builder("consul.health.watch.refreshes")
+                .description("Services re-read into the registry cache because their checks changed status")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready && registryCache.isReady();
+    }
+
+    /**
+     * Health of every instance of {@code serviceName}, from the watched state when it is
+     * loaded and straight from Consul otherwise.
+     */
+    public List<ServiceHealthDto> getHealth(String serviceName) {
+        List<ServiceHealthDto> health = isReady() ? fromCache(serviceName) : fromConsul(serviceName);
+        if (health.isEmpty()) {
+            throw new ServiceNotFoundException(serviceName);
+        }
+        return health;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || !properties.isHealthWatch()) {
+            return;
+        }
+        running = true;
+        watchThread = Thread.ofPlatform()
+                .name("consul-health-watch")
+                .daemon(true)
+                .start(this::watchLoop);
+        log.info("🩺 Started Consul health watch (passing-only instance lists: {})", discoveryProperties.isQueryPassing());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        long index = 0;
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Response<List<Check>> response = consulClient.getHealthChecksState(null,
+                        new QueryParams(properties.getWatchWait().toSeconds(), index),
+                        discoveryProperties.getAclToken());
+
+                long newIndex = response.getConsulIndex() != null ? response.getConsulIndex() : 0L;
+                if (newIndex < index) {
+                    index = 0;
+                    continue;
+                }
+                if (newIndex == index && ready) {
+                    continue;
+                }
+
+                update(response.getValue(), newIndex);
+                index = newIndex;
+
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                watchErrors.increment();
+                log.warn("⚠️ Consul health watch failed, retrying in {}s: {}",
+                        properties.getErrorBackoff().toSeconds(), e.getMessage());
+                sleep(properties.getErrorBackoff());
+            }
+        }
+        log.info("🛑 Consul health watch stopped");
+    }
+
+    private void update(List<Check> checks, long index) {
+        Map<String, List<Check>> byService = new HashMap<>();
+        Map<String, List<Check>> byNode = new HashMap<>();
+        for (Check check : checks) {
+            if (check.getServiceName() == null || check.getServiceName().isEmpty()) {
+                byNode.computeIfAbsent(check.getNode(), node -> new ArrayList<>()).add(check);
+            } else {
+                byService.computeIfAbsent(check.getServiceName(), name -> new ArrayList<>()).add(check);
+            }
+        }
+
+        Set<String> changed = ready ? changedServices(byService, byNode) : Set.of();
+        serviceChecks = byService;
+        nodeChecks = byNode;
+        ready = true;
+
+        if (!changed.isEmpty()) {
+            log.debug("🩺 Check status changed at index {} for {} services", index, changed.size());
+            servicesRefreshed.increment(changed.size());
+            registryCache.refreshServices(changed, index);
+        }
+    }
+
+    /**
+     * Services whose own checks changed status, plus services the registry has running on a
+     * node whose node checks did.
+     */
+    private Set<String> changedServices(Map<String, List<Check>> byService, Map<String, List<Check>> byNode) {
+        Set<String> changed = new HashSet<>();
+        Set<String> allServices = new HashSet<>(byService.keySet());
+        allServices.addAll(serviceChecks.keySet());
+        for (String serviceName : allServices) {
+            if (!statuses(byService.get(serviceName)).equals(statuses(serviceChecks.get(serviceName)))) {
+                changed.add(serviceName);
+            }
+        }
+
+        Set<String> allNodes = new HashSet<>(byNode.keySet());
+        allNodes.addAll(nodeChecks.keySet());
+        for (String node : allNodes) {
+            if (!statuses(byNode.get(node)).equals(statuses(nodeChecks.get(node)))) {
+                // Not derived from service checks: instances without checks of their own count too
+                changed.addAll(registryCache.getServicesOnNode(node));
+            }
+        }
+        return changed;
+    }
+
+    // Only status matters, check output changes on every run for many check types
+    private static Map<String, Check.CheckStatus> statuses(List<Check> checks) {
+        if (checks == null) {
+            return Map.of();
+        }
+        Map<String, Check.CheckStatus> statuses = new HashMap<>();
+        checks.forEach(check -> statuses.put(check.getNode() + "/" + check.getCheckId(), check.getStatus()));
+        return statuses;
+    }
+
+    private List<ServiceHealthDto> fromCache(String serviceName) {
+        Map<String, List<Check>> byInstance = new LinkedHashMap<>();
+        serviceChecks.getOrDefault(serviceName, List.of())
+                .forEach(check -> byInstance.computeIfAbsent(check.getServiceId(), id -> new ArrayList<>()).add(check));
+
+        List<ServiceHealthDto> health = new ArrayList<>();
+        for (ServiceInstanceDto instance : registryCache.getInstances(serviceName)) {
+            List<Check> checks = new ArrayList<>(byInstance.getOrDefault(instance.getInstanceId(), List.of()));
+            // From the registry, an instance without service checks still has a node whose checks apply
+            String node = registryCache.getNode(serviceName, instance.getInstanceId());
+            List<String> nodes = node != null ? List.of(node) : checks.stream().map(Check::getNode).distinct().toList();
+            nodes.forEach(instanceNode -> checks.addAll(nodeChecks.getOrDefault(instanceNode, List.of())));
+            health.add(ServiceInstanceMapper.toHealthDto(serviceName, instance.getInstanceId(), checks));
+        }
+        return health;
+    }
+
+    private List<ServiceHealthDto> fromConsul(String serviceName) {
+        // All instances, whatever query-passing says: this is the view that explains why one is failing
+        HealthServicesRequest request = HealthServicesRequest.newBuilder()
+                .setPassing(false)
+                .setToken(discoveryProperties.getAclToken())
+                .setQueryParams(QueryParams.DEFAULT)
+                .build();
+        List<HealthService> healthServices = concurrencyLimiter.call(
+                () -> consulClient.getHealthServices(serviceName, request).getValue());
+        return healthServices.stream()
+                .map(healthService -> ServiceInstanceMapper.toHealthDto(serviceName,
+                        healthService.getService().getId(),
+                        healthService.getChecks() != null ? healthService.getChecks() : List.of()))
+                .toList();
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.ConsulConnectionException;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Inverted index over the tags and metadata of every cached instance. Each instance holds a
+ * slot and each tag or metadata key/value a {@link BitSet} of slots, so a query is a handful
+ * of word-wise ANDs. Registry deltas only re-index the services that changed.
+ * Results come back in slot order, stable as long as the matched services do not change.
+ */
+@Component
+@Slf4j
+public class ServiceInstanceIndex {
+
+    private final ServiceRegistryCache registryCache;
+    private final ApplicationConfig.InstanceIndex properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final List<ServiceInstanceDto> slots = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, int[]> slotsByService = new HashMap<>();
+    private final Map<String, BitSet> byTag = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> byMetadata = new HashMap<>();
+    private boolean initialized;
+
+    public ServiceInstanceIndex(ServiceRegistryCache registryCache,
+                                ApplicationConfig applicationConfig,
+                                MeterRegistry meterRegistry) {
+        this.registryCache = registryCache;
+        this.properties = applicationConfig.getInstanceIndex();
+
+        Gauge.builder("consul.index.instances", this, index -> index.read(index.live::cardinality))
+                .description("Instances held by the tag and metadata index")
+                .register(meterRegistry);
+        Gauge.builder("consul.index.terms", this, index -> index.read(
+                        () -> index.byTag.size() + index.byMetadata.values().stream().mapToInt(Map::size).sum()))
+                .description("Distinct tags and metadata key/value pairs in the index")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onRegistryChanged(RegistryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!initialized || event.previous().isEmpty()) {
+                clear();
+                event.current().instances().forEach(this::add);
+                initialized = true;
+            } else {
+                for (RegistryChangedEvent.ServiceChange change : event.changes()) {
+                    remove(change.serviceName());
+                    if (!change.isRemoved()) {
+                        add(change.serviceName(), change.current());
+                    }
+                }
+            }
+            log.debug("🗂️ Instance index updated at index {}: {} instances, {} tags",
+                    event.current().index(), live.cardinality(), byTag.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Instances carrying every tag in {@code tags} and, for each metadata key, one of the
+     * listed values. {@code page} is zero based.
+     */
+    public Page query(List<String> tags, Map<String, List<String>> metadata, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + properties.getMaxPageSize());
+        }
+        if (!registryCache.isReady()) {
+            throw new ConsulConnectionException("Instance queries are available once the local registry is loaded");
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(tags, metadata);
+            int total = matches.cardinality();
+            long skip = (long) page * size;
+            if (skip >= total) {
+                return new Page(List.of(), total);
+            }
+
+            int slot = matches.nextSetBit(0);
+            for (long skipped = 0; skipped < skip; skipped++) {
+                slot = matches.nextSetBit(slot + 1);
+            }
+            List<ServiceInstanceDto> instances = new ArrayList<>(Math.min(size, total));
+            for (; slot >= 0 && instances.size() < size; slot = matches.nextSetBit(slot + 1)) {
+                instances.add(slots.get(slot));
+            }
+            return new Page(instances, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet match(List<String> tags, Map<String, List<String>> metadata) {
+        List<BitSet> criteria = new ArrayList<>(tags.size() + metadata.size());
+        for (String tag : tags) {
+            BitSet postings = byTag.get(tag);
+            if (postings == null) {
+                return new BitSet();
+            }
+            criteria.add(postings);
+        }
+        metadata.forEach((key, values) -> {
+            Map<String, BitSet> byValue = byMetadata.getOrDefault(key, Map.of());
+            BitSet anyValue = new BitSet();
+            values.stream().map(byValue::get).filter(Objects::nonNull).forEach(anyValue::or);
+            criteria.add(anyValue);
+        });
+        if (criteria.isEmpty()) {
+            return (BitSet) live.clone();
+        }
+
+        // Start from the most selective set so the copy and every AND stay small
+        criteria.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet matches = (BitSet) criteria.get(0).clone();
+        for (int i = 1; i < criteria.size() && !matches.isEmpty(); i++) {
+            matches.and(criteria.get(i));
+        }
+        return matches;
+    }
+
+    private void add(String serviceName, List<ServiceInstanceDto> instances) {
+        int[] serviceSlots = new int[instances.size()];
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstanceDto instance = instances.get(i);
+            int slot = live.nextClearBit(0);
+            if (slot == slots.size()) {
+                slots.add(instance);
+            } else {
+                slots.set(slot, instance);
+            }
+            live.set(slot);
+            serviceSlots[i] = slot;
+
+            if (instance.getTags() != null) {
+                instance.getTags().forEach(tag -> byTag.computeIfAbsent(tag, t -> new BitSet()).set(slot));
+            }
+            if (instance.getMetadata() != null) {
+                instance.getMetadata().forEach((key, value) -> byMetadata
+                        .computeIfAbsent(key, k -> new HashMap<>())
+                        .computeIfAbsent(value, v -> new BitSet())
+                        .set(slot));
+            }
+        }
+        slotsByService.put(serviceName, serviceSlots);
+    }
+
+    private void remove(String serviceName) {
+        int[] serviceSlots = slotsByService.remove(serviceName);
+        if (serviceSlots == null) {
+            return;
+        }
+        for (int slot : serviceSlots) {
+            ServiceInstanceDto instance = slots.get(slot);
+            if (instance.getTags() != null) {
+                instance.getTags().forEach(tag -> clearSlot(byTag, tag, slot));
+            }
+            if (instance.getMetadata() != null) {
+                instance.getMetadata().forEach((key, value) -> {
+                    Map<String, BitSet> byValue = byMetadata.get(key);
+                    if (byValue != null) {
+                        clearSlot(byValue, value, slot);
+                        if (byValue.isEmpty()) {
+                            byMetadata.remove(key);
+                        }
+                    }
+                });
+            }
+            slots.set(slot, null);
+            live.clear(slot);
+        }
+    }
+
+    private static void clearSlot(Map<String, BitSet> postings, String term, int slot) {
+        BitSet bits = postings.get(term);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void clear() {
+        slots.clear();
+        live.clear();
+        slotsByService.clear();
+        byTag.clear();
+        byMetadata.clear();
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Page(List<ServiceInstanceDto> instances, int total) {
+    }
+}
@@ -0,0 +1,121 @@
+package org.devquality.consulservice.service;
+
+import com.ecwid.consul.v1.health.model.Check;
+import org.devquality.consulservice.web.dtos.ServiceHealthDto;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.consul.discovery.ConsulServiceInstance;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maps discovery client instances to the DTOs exposed by the API. Shared by
+ * {@link ConsulService} and the local registry cache so both produce identical views.
+ */
+public final class ServiceInstanceMapper {
+
+    private ServiceInstanceMapper() {
+    }
+
+    public static ServiceInstanceDto toDto(ServiceInstance instance) {
+        return ServiceInstanceDto.builder()
+                .serviceId(instance.getServiceId())
+                .instanceId(instance.getInstanceId())
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .uri(instance.getUri())
+                .secure(instance.isSecure())
+                .metadata(instance.getMetadata())
+                .tags(getTags(instance))
+                .status(getInstanceStatus(instance))
+                .scheme(instance.getScheme())
+                .build();
+    }
+
+    static List<String> getTags(ServiceInstance instance) {
+        // Tags are Consul specific, other discovery clients only expose metadata
+        return instance instanceof ConsulServiceInstance consulInstance && consulInstance.getTags() != null
+                ? List.copyOf(consulInstance.getTags()) : List.of();
+    }
+
+    static String getNode(ServiceInstance instance) {
+        return instance instanceof ConsulServiceInstance consulInstance
+                && consulInstance.getHealthService() != null
+                && consulInstance.getHealthService().getNode() != null
+                ? consulInstance.getHealthService().getNode().getNode() : null;
+    }
+
+    /**
+     * Per-instance health built from its Consul checks, node checks included.
+     */
+    public static ServiceHealthDto toHealthDto(String serviceName, String instanceId, List<Check> checks) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (Check check : checks) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("name", check.getName());
+            detail.put("status", statusOf(check).name());
+            detail.put("node", check.getNode());
+            detail.put("service_check", check.getServiceId() != null && !check.getServiceId().isEmpty());
+            detail.put("output", check.getOutput());
+            details.put(check.getCheckId(), detail);
+        }
+
+        return ServiceHealthDto.builder()
+                .serviceId(serviceName)
+                .instanceId(instanceId)
+                .status(aggregate(checks).name())
+                .output(checks.stream()
+                        .filter(check -> statusOf(check) != Check.CheckStatus.PASSING)
+                        .map(check -> check.getName() + ": " + check.getOutput())
+                        .collect(Collectors.joining("\n")))
+                .timestamp(LocalDateTime.now())
+                .details(details)
+                .build();
+    }
+
+    /**
+     * Worst status among {@code checks}, an instance without checks counts as passing.
+     */
+    public static Check.CheckStatus aggregate(List<Check> checks) {
+        Check.CheckStatus worst = Check.CheckStatus.PASSING;
+        for (Check check : checks) {
+            Check.CheckStatus status = statusOf(check);
+            if (severity(status) > severity(worst)) {
+                worst = status;
+            }
+        }
+        return worst;
+    }
+
+    static String getInstanceStatus(ServiceInstance instance) {
+        if (instance instanceof ConsulServiceInstance consulInstance && consulInstance.getHealthService() != null) {
+            List<Check> checks = consulInstance.getHealthService().getChecks();
+            return switch (aggregate(checks != null ? checks : List.of())) {
+                case PASSING -> "UP";
+                case WARNING -> "WARNING";
+                case CRITICAL -> "DOWN";
+                default -> "UNKNOWN";
+            };
+        }
+        // Other discovery clients: status metadata, "UP" when absent
+        String status = instance.getMetadata().get("status");
+        return status != null ? status : "UP";
+    }
+
+    private static Check.CheckStatus statusOf(Check check) {
+        return check.getStatus() != null ? check.getStatus() : Check.CheckStatus.UNKNOWN;
+    }
+
+    private static int severity(Check.CheckStatus status) {
+        return switch (status) {
+            case PASSING -> 0;
+            case WARNING -> 1;
+            case CRITICAL -> 3;
+            default -> 2;
+        };
+    }
+}
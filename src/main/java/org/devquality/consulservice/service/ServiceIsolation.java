@@ -0,0 +1,151 @@
+package org.devquality.consulservice.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.LoadSheddingException;
+import org.devquality.consulservice.exception.ServiceCircuitOpenException;
+import org.devquality.consulservice.exception.ServiceIsolatedException;
+import org.devquality.consulservice.exception.ServiceNotFoundException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker per service name, so one slow or failing service cannot
+ * open the breaker or take the permits of every other lookup. Instances are created on
+ * first use from the shared resilience4j configuration and evicted once idle and closed.
+ */
+@Component
+@Slf4j
+public class ServiceIsolation {
+
+    static final String NAME_PREFIX = "consul-service-";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ApplicationConfig.Isolation properties;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final BulkheadConfig bulkheadConfig;
+
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public ServiceIsolation(CircuitBreakerRegistry circuitBreakerRegistry,
+                            BulkheadRegistry bulkheadRegistry,
+                            ApplicationConfig applicationConfig) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.properties = applicationConfig.getIsolation();
+
+        CircuitBreakerConfig base = circuitBreakerRegistry.getConfiguration(properties.getConfigName())
+                .orElse(circuitBreakerRegistry.getDefaultConfig());
+        // A missing service is an answer, not a Consul failure. Load shedding is global: a full
+        // executor or concurrency limit says nothing about the service that happened to be asked
+        this.circuitBreakerConfig = CircuitBreakerConfig.from(base)
+                .ignoreException(base.getIgnoreExceptionPredicate()
+                        .or(e -> e instanceof ServiceNotFoundException
+                                || e instanceof IllegalArgumentException
+                                || e instanceof LoadSheddingException))
+                .build();
+        this.bulkheadConfig = bulkheadRegistry.getConfiguration(properties.getConfigName())
+                .orElse(bulkheadRegistry.getDefaultConfig());
+    }
+
+    public <T> T execute(String serviceName, Supplier<T> call) {
+        Compartment compartment = compartments.computeIfAbsent(serviceName, this::create);
+        compartment.touch();
+
+        try {
+            return Bulkhead.decorateSupplier(compartment.bulkhead(),
+                    CircuitBreaker.decorateSupplier(compartment.circuitBreaker(), call)).get();
+        } catch (BulkheadFullException e) {
+            throw new ServiceIsolatedException(serviceName, properties.getRetryAfter());
+        } catch (CallNotPermittedException e) {
+            // Not shedding: the breaker opened because Consul failed, last known good data still applies
+            throw new ServiceCircuitOpenException(serviceName);
+        }
+    }
+
+    /**
+     * Circuit breaker and bulkhead state of every service with a live compartment.
+     */
+    public Map<String, Map<String, Object>> getStates() {
+        Map<String, Map<String, Object>> states = new TreeMap<>();
+        compartments.forEach((serviceName, compartment) -> {
+            CircuitBreaker.Metrics metrics = compartment.circuitBreaker().getMetrics();
+            Bulkhead.Metrics bulkhead = compartment.bulkhead().getMetrics();
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("circuit_breaker", compartment.circuitBreaker().getState().name());
+            state.put("failure_rate", metrics.getFailureRate());
+            state.put("slow_call_rate", metrics.getSlowCallRate());
+            state.put("not_permitted_calls", metrics.getNumberOfNotPermittedCalls());
+            state.put("bulkhead_available", bulkhead.getAvailableConcurrentCalls());
+            state.put("bulkhead_max", bulkhead.getMaxAllowedConcurrentCalls());
+            state.put("idle_seconds", (System.currentTimeMillis() - compartment.lastUsed()) / 1000);
+            states.put(serviceName, state);
+        });
+        return states;
+    }
+
+    @Scheduled(fixedDelayString = "${app.isolation.evict-interval:PT1M}")
+    public void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - properties.getIdleTimeout().toMillis();
+        compartments.entrySet().removeIf(entry -> {
+            Compartment compartment = entry.getValue();
+            boolean idle = compartment.lastUsed() < idleBefore
+                    && compartment.circuitBreaker().getState() == CircuitBreaker.State.CLOSED
+                    && compartment.bulkhead().getMetrics().getAvailableConcurrentCalls()
+                    == compartment.bulkhead().getMetrics().getMaxAllowedConcurrentCalls();
+            if (idle) {
+                circuitBreakerRegistry.remove(compartment.circuitBreaker().getName());
+                bulkheadRegistry.remove(compartment.bulkhead().getName());
+                log.debug("🧹 Evicted idle isolation compartment for service '{}'", entry.getKey());
+            }
+            return idle;
+        });
+    }
+
+    private Compartment create(String serviceName) {
+        String name = NAME_PREFIX + serviceName;
+        return new Compartment(
+                circuitBreakerRegistry.circuitBreaker(name, circuitBreakerConfig),
+                bulkheadRegistry.bulkhead(name, bulkheadConfig));
+    }
+
+    private static final class Compartment {
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private Compartment(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+        }
+
+        void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+
+        long lastUsed() {
+            return lastUsed;
+        }
+
+        CircuitBreaker circuitBreaker() {
+            return circuitBreaker;
+        }
+
+        Bulkhead bulkhead() {
+            return bulkhead;
+        }
+    }
+}
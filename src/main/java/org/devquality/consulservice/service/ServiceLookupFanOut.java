@@ -0,0 +1,116 @@
+package org.devquality.consulservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Runs per-service lookups in parallel on the Consul executor, capped by a semaphore and
+ * bounded by an overall deadline. Lookups that miss the deadline are cancelled and
+ * reported as timed out instead of failing the whole fan-out. A permit is taken before a
+ * lookup is submitted, so at most {@code max-concurrency} tasks per fan-out reach the executor.
+ * Only the PLATFORM execution mode can reject a submit (the bounded taskExecutor throws
+ * {@link org.devquality.consulservice.exception.ExecutorSaturatedException}); that lookup is
+ * then reported as failed. Virtual threads never reject.
+ */
+@Component
+@Slf4j
+public class ServiceLookupFanOut {
+
+    private final ApplicationConfig.FanOut properties;
+    private final ExecutorService executor;
+
+    public ServiceLookupFanOut(ApplicationConfig applicationConfig,
+                               @Qualifier("consulExecutor") ExecutorService executor) {
+        this.properties = applicationConfig.getFanOut();
+        this.executor = executor;
+    }
+
+    public <T> Map<String, LookupResult<T>> lookup(Collection<String> serviceNames, Function<String, T> lookup) {
+        Semaphore permits = new Semaphore(properties.getMaxConcurrency());
+        long deadline = System.nanoTime() + properties.getDeadline().toNanos();
+
+        Map<String, Future<T>> pending = new LinkedHashMap<>();
+        Map<String, LookupResult<T>> settled = new LinkedHashMap<>();
+        for (String serviceName : serviceNames) {
+            if (!acquire(permits, deadline)) {
+                settled.put(serviceName, LookupResult.timedOut());
+                continue;
+            }
+            try {
+                pending.put(serviceName, executor.submit(() -> {
+                    try {
+                        return lookup.apply(serviceName);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                settled.put(serviceName, LookupResult.failure(e));
+            }
+        }
+
+        Map<String, LookupResult<T>> results = new LinkedHashMap<>();
+        for (String serviceName : serviceNames) {
+            Future<T> future = pending.get(serviceName);
+            results.put(serviceName, future != null ? await(serviceName, future, deadline) : settled.get(serviceName));
+        }
+        return results;
+    }
+
+    private static boolean acquire(Semaphore permits, long deadline) {
+        try {
+            return permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <T> LookupResult<T> await(String serviceName, Future<T> future, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return LookupResult.success(future.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("⏱️ Lookup for service '{}' missed the {}ms deadline", serviceName,
+                    properties.getDeadline().toMillis());
+            return LookupResult.timedOut();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            return LookupResult.failure(cause instanceof RuntimeException runtime
+                    ? runtime : new CompletionException(cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return LookupResult.timedOut();
+        }
+    }
+
+    public record LookupResult<T>(T value, RuntimeException error, boolean timedOut) {
+
+        static <T> LookupResult<T> success(T value) {
+            return new LookupResult<>(value, null, false);
+        }
+
+        static <T> LookupResult<T> failure(RuntimeException error) {
+            return new LookupResult<>(null, error, false);
+        }
+
+        static <T> LookupResult<T> timedOut() {
+            return new LookupResult<>(null, null, true);
+        }
+
+        public boolean isSuccess() {
+            return error == null && !timedOut;
+        }
+    }
+}
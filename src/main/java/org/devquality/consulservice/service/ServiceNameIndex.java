@@ -0,0 +1,161 @@
+package org.devquality.consulservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable, sorted view of a services list for paged listing. Prefix filters are a binary
+ * search over the sorted names; substring filters of three or more characters intersect the
+ * posting lists of the query's trigrams and only verify the survivors. Cursors carry the last
+ * name returned, so pages stay consistent when services are added or removed in between.
+ */
+public final class ServiceNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final List<String> source;
+    private final String[] names;
+    private final Map<String, int[]> trigrams;
+
+    private ServiceNameIndex(List<String> source) {
+        this.source = source;
+        this.names = source.toArray(String[]::new);
+        Arrays.sort(names);
+
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int position = 0; position < names.length; position++) {
+            String name = names[position].toLowerCase(Locale.ROOT);
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i + GRAM <= name.length(); i++) {
+                String gram = name.substring(i, i + GRAM);
+                if (seen.add(gram)) {
+                    postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(position);
+                }
+            }
+        }
+        this.trigrams = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, positions) ->
+                trigrams.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    public static ServiceNameIndex of(List<String> services) {
+        return new ServiceNameIndex(services);
+    }
+
+    /**
+     * Whether this index was built from exactly {@code services}, compared by identity.
+     */
+    public boolean isBuiltFrom(List<String> services) {
+        return source == services;
+    }
+
+    /**
+     * Up to {@code limit} names after {@code cursor} that start with {@code prefix} and contain
+     * {@code contains} (case-insensitive). Either filter may be {@code null}.
+     */
+    public Page page(String prefix, String contains, String cursor, int limit) {
+        int from = 0;
+        int to = names.length;
+        if (prefix != null && !prefix.isEmpty()) {
+            from = insertionPoint(prefix);
+            to = insertionPoint(prefix + Character.MAX_VALUE);
+        }
+
+        int start = Math.max(from, cursor != null ? insertionPoint(decodeCursor(cursor) + '\0') : 0);
+
+        if (contains == null || contains.isEmpty()) {
+            int end = Math.min(to, start + limit);
+            List<String> services = start < end ? Arrays.asList(names).subList(start, end) : List.of();
+            return new Page(List.copyOf(services), Math.max(0, to - from),
+                    end < to ? encodeCursor(names[end - 1]) : null);
+        }
+
+        String needle = contains.toLowerCase(Locale.ROOT);
+        int[] candidates = candidates(needle);
+        List<String> services = new ArrayList<>(Math.min(limit, 64));
+        int total = 0;
+        String last = null;
+        boolean more = false;
+        for (int i = 0; i < (candidates != null ? candidates.length : names.length); i++) {
+            int position = candidates != null ? candidates[i] : i;
+            if (position < from || position >= to || !names[position].toLowerCase(Locale.ROOT).contains(needle)) {
+                continue;
+            }
+            total++;
+            if (position < start) {
+                continue;
+            }
+            if (services.size() < limit) {
+                services.add(names[position]);
+                last = names[position];
+            } else {
+                more = true;
+            }
+        }
+        return new Page(services, total, more ? encodeCursor(last) : null);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Sorted positions that may contain {@code needle}, or {@code null} when it is too short
+     * for trigrams and every name has to be checked.
+     */
+    private int[] candidates(String needle) {
+        if (needle.length() < GRAM) {
+            return null;
+        }
+        int[] result = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            int[] postings = trigrams.getOrDefault(needle.substring(i, i + GRAM), NO_POSTINGS);
+            result = result == null ? postings : intersect(result, postings);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] out = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                out[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private int insertionPoint(String key) {
+        int position = Arrays.binarySearch(names, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    static String encodeCursor(String name) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * {@code nextCursor} is {@code null} on the last page.
+     */
+    public record Page(List<String> services, int total, String nextCursor) {
+    }
+}
@@ -0,0 +1,349 @@
+package org.devquality.consulservice.service;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.catalog.CatalogServicesRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.consul.discovery.ConsulDiscoveryProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process copy of the Consul catalog kept up to date with blocking queries
+ * ({@code X-Consul-Index} long-polls). Reads are a volatile load plus a map lookup.
+ */
+@Component
+@Slf4j
+public class ServiceRegistryCache {
+
+    private final DiscoveryClient discoveryClient;
+    private final ConsulClient consulClient;
+    private final ConsulDiscoveryProperties discoveryProperties;
+    private final ConsulConcurrencyLimiter concurrencyLimiter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationConfig.Registry properties;
+
+    private final Timer refreshTimer;
+    private final Counter watchErrors;
+
+    private volatile RegistrySnapshot snapshot = RegistrySnapshot.EMPTY;
+    private volatile long lastContactMillis;
+    private volatile Instant confirmedAt = Instant.EPOCH;
+    // Consul node of each instance id per service, from the last read of its instances
+    private volatile Map<String, Map<String, String>> nodesByService = Map.of();
+    private volatile boolean running;
+    private boolean announced;
+    private Thread watchThread;
+
+    public ServiceRegistryCache(DiscoveryClient discoveryClient,
+                                ConsulClient consulClient,
+                                ConsulDiscoveryProperties discoveryProperties,
+                                ConsulConcurrencyLimiter concurrencyLimiter,
+                                ApplicationEventPublisher eventPublisher,
+                                ApplicationConfig applicationConfig,
+                                MeterRegistry meterRegistry) {
+        this.discoveryClient = discoveryClient;
+        this.consulClient = consulClient;
+        this.discoveryProperties = discoveryProperties;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.eventPublisher = eventPublisher;
+        this.properties = applicationConfig.getRegistry();
+
+        Gauge.builder("consul.registry.snapshot.age", this, ServiceRegistryCache::snapshotAgeSeconds)
+                .description("Seconds since the local registry snapshot was last published")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("consul.registry.index", this, cache -> cache.snapshot.index())
+                .description("X-Consul-Index of the current registry snapshot")
+                .register(meterRegistry);
+        Gauge.builder("consul.registry.last.contact", this, cache -> cache.lastContactMillis)
+                .description("X-Consul-LastContact reported by the last blocking query")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.refreshTimer = Timer.builder("consul.registry.watch.lag")
+                .description("Time between a catalog index change being observed and the new snapshot being published")
+                .register(meterRegistry);
+        this.watchErrors = Counter.builder("consul.registry.watch.errors")
+                .description("Failed blocking queries against the Consul catalog")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return properties.isEnabled() && !snapshot.isEmpty();
+    }
+
+    public RegistrySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * When Consul last answered the catalog watch, whether or not the index moved.
+     */
+    public Instant getConfirmedAt() {
+        return confirmedAt;
+    }
+
+    /**
+     * When Consul last confirmed the snapshot, or {@code null} while that is recent enough for
+     * it to count as fresh. A watch that cannot reach Consul keeps serving its last snapshot.
+     */
+    public Instant getStaleSince() {
+        Instant confirmed = confirmedAt;
+        return confirmed.plus(properties.getStaleAfter()).isBefore(Instant.now()) ? confirmed : null;
+    }
+
+    /**
+     * Services with an instance on {@code node}.
+     */
+    public Set<String> getServicesOnNode(String node) {
+        Set<String> services = new HashSet<>();
+        nodesByService.forEach((serviceName, nodes) -> {
+            if (nodes.containsValue(node)) {
+                services.add(serviceName);
+            }
+        });
+        return services;
+    }
+
+    /**
+     * Consul node {@code instanceId} runs on, {@code null} until its service has been read from Consul.
+     */
+    public String getNode(String serviceName, String instanceId) {
+        return nodesByService.getOrDefault(serviceName, Map.of()).get(instanceId);
+    }
+
+    public List<String> getServices() {
+        return snapshot.services();
+    }
+
+    public List<ServiceInstanceDto> getInstances(String serviceName) {
+        return snapshot.instancesOf(serviceName);
+    }
+
+    /**
+     * Installs a snapshot restored from disk if nothing has been loaded from Consul yet.
+     * No event is published: listeners are not registered this early and catch up on the
+     * first watch refresh instead. {@code confirmedAt} is when the file was last confirmed.
+     */
+    public void seed(RegistrySnapshot restored, Instant confirmedAt) {
+        if (properties.isEnabled() && snapshot.isEmpty()) {
+            snapshot = restored;
+            this.confirmedAt = confirmedAt;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("⏸️ Local service registry cache is disabled");
+            return;
+        }
+        running = true;
+        watchThread = Thread.ofPlatform()
+                .name("consul-registry-watch")
+                .daemon(true)
+                .start(this::watchLoop);
+        log.info("👀 Started Consul catalog watch (wait={}s)", properties.getWatchWait().toSeconds());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        long index = 0;
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Response<Map<String, List<String>>> response = consulClient.getCatalogServices(
+                        CatalogServicesRequest.newBuilder()
+                                .setQueryParams(new QueryParams(properties.getWatchWait().toSeconds(), index))
+                                .setToken(discoveryProperties.getAclToken())
+                                .build());
+
+                Long lastContact = response.getConsulLastContact();
+                lastContactMillis = lastContact != null ? lastContact : 0L;
+
+                long newIndex = response.getConsulIndex() != null ? response.getConsulIndex() : 0L;
+                // Consul docs: reset the index if it goes backwards (e.g. snapshot restore)
+                if (newIndex < index) {
+                    log.warn("⚠️ Consul catalog index went backwards ({} -> {}), restarting the watch", index, newIndex);
+                    index = 0;
+                    continue;
+                }
+                if (newIndex == index && !snapshot.isEmpty()) {
+                    confirmedAt = Instant.now();
+                    continue;
+                }
+
+                long observedAt = System.nanoTime();
+                refresh(newIndex, response.getValue().keySet());
+                refreshTimer.record(System.nanoTime() - observedAt, TimeUnit.NANOSECONDS);
+                confirmedAt = Instant.now();
+                index = newIndex;
+
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                watchErrors.increment();
+                log.warn("⚠️ Consul catalog watch failed, retrying in {}s: {}",
+                        properties.getErrorBackoff().toSeconds(), e.getMessage());
+                sleep(properties.getErrorBackoff());
+            }
+        }
+        log.info("🛑 Consul catalog watch stopped");
+    }
+
+    /**
+     * Re-reads the instances of {@code serviceNames} after their health checks changed, without
+     * waiting for the catalog index to move. Services not in the catalog yet are left to the watch.
+     */
+    public synchronized void refreshServices(Collection<String> serviceNames, long healthIndex) {
+        RegistrySnapshot previous = snapshot;
+        if (previous.isEmpty()) {
+            return;
+        }
+
+        long index = nextIndex(previous, healthIndex);
+        Map<String, List<ServiceInstanceDto>> instances = new HashMap<>(previous.instances());
+        Map<String, Long> modifyIndexes = new HashMap<>(previous.modifyIndexes());
+        Map<String, Map<String, String>> nodes = new HashMap<>(nodesByService);
+        boolean changed = false;
+        for (String serviceName : serviceNames) {
+            if (!instances.containsKey(serviceName)) {
+                continue;
+            }
+            List<ServiceInstance> serviceInstances = concurrencyLimiter.call(() -> discoveryClient.getInstances(serviceName));
+            nodes.put(serviceName, nodesOf(serviceInstances));
+            List<ServiceInstanceDto> current = serviceInstances.stream()
+                    .map(ServiceInstanceMapper::toDto)
+                    .toList();
+            if (!current.equals(instances.get(serviceName))) {
+                instances.put(serviceName, current);
+                modifyIndexes.put(serviceName, index);
+                changed = true;
+            }
+        }
+        nodesByService = Map.copyOf(nodes);
+        if (!changed) {
+            return;
+        }
+
+        publish(new RegistrySnapshot(index, previous.services(), instances, Instant.now(),
+                previous.servicesIndex(), modifyIndexes));
+    }
+
+    private synchronized void refresh(long catalogIndex, Set<String> serviceNames) {
+        List<String> services = new ArrayList<>(serviceNames);
+        Collections.sort(services);
+
+        Map<String, List<ServiceInstanceDto>> instances = new HashMap<>();
+        Map<String, Map<String, String>> nodes = new HashMap<>();
+        for (String serviceName : services) {
+            List<ServiceInstance> serviceInstances = concurrencyLimiter.call(() -> discoveryClient.getInstances(serviceName));
+            instances.put(serviceName, serviceInstances.stream()
+                    .map(ServiceInstanceMapper::toDto)
+                    .toList());
+            nodes.put(serviceName, nodesOf(serviceInstances));
+        }
+        nodesByService = Map.copyOf(nodes);
+
+        RegistrySnapshot previous = snapshot;
+        long index = nextIndex(previous, catalogIndex);
+        Map<String, Long> modifyIndexes = new HashMap<>();
+        instances.forEach((serviceName, current) -> modifyIndexes.put(serviceName,
+                current.equals(previous.instances().get(serviceName))
+                        ? previous.modifyIndexOf(serviceName) : index));
+        long servicesIndex = services.equals(previous.services()) ? previous.servicesIndex() : index;
+
+        publish(new RegistrySnapshot(index, services, instances, Instant.now(), servicesIndex, modifyIndexes));
+    }
+
+    private static Map<String, String> nodesOf(List<ServiceInstance> serviceInstances) {
+        Map<String, String> nodes = new HashMap<>();
+        for (ServiceInstance instance : serviceInstances) {
+            String node = ServiceInstanceMapper.getNode(instance);
+            if (node != null && instance.getInstanceId() != null) {
+                nodes.put(instance.getInstanceId(), node);
+            }
+        }
+        return Map.copyOf(nodes);
+    }
+
+    /**
+     * Index of the next snapshot. It follows Consul but always moves forward, so ETags and
+     * watch resume points never repeat: health refreshes and the catalog watch report
+     * different indexes, and Consul's own index goes backwards after a server restore.
+     */
+    private static long nextIndex(RegistrySnapshot previous, long consulIndex) {
+        return Math.max(previous.index() + 1, consulIndex);
+    }
+
+    private void publish(RegistrySnapshot next) {
+        RegistrySnapshot previous = snapshot;
+        snapshot = next;
+
+        List<RegistryChangedEvent.ServiceChange> changes = diff(previous, next);
+        log.debug("🔄 Registry snapshot refreshed at index {} with {} services ({} changed)",
+                next.index(), next.services().size(), changes.size());
+
+        // Always announce the first refresh so listeners can initialise, even over a seeded snapshot
+        if (!changes.isEmpty() || !announced) {
+            announced = true;
+            eventPublisher.publishEvent(new RegistryChangedEvent(previous, next, changes));
+        }
+    }
+
+    private static List<RegistryChangedEvent.ServiceChange> diff(RegistrySnapshot previous, RegistrySnapshot next) {
+        List<RegistryChangedEvent.ServiceChange> changes = new ArrayList<>();
+        next.instances().forEach((serviceName, current) -> {
+            List<ServiceInstanceDto> before = previous.instances().get(serviceName);
+            if (!current.equals(before)) {
+                changes.add(new RegistryChangedEvent.ServiceChange(serviceName, before, current));
+            }
+        });
+        previous.instances().forEach((serviceName, before) -> {
+            if (!next.instances().containsKey(serviceName)) {
+                changes.add(new RegistryChangedEvent.ServiceChange(serviceName, before, null));
+            }
+        });
+        return changes;
+    }
+
+    private double snapshotAgeSeconds() {
+        RegistrySnapshot current = snapshot;
+        if (current.isEmpty()) {
+            return -1;
+        }
+        return Duration.between(current.refreshedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.devquality.consulservice.web.dtos.ServiceStatsDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Keeps {@link ServiceStatsDto} up to date from registry deltas instead of recomputing it
+ * per request. Each change only touches the contribution of the affected service, and
+ * reads return the last published DTO.
+ */
+@Component
+@Slf4j
+public class ServiceStatsAggregator {
+
+    static final String HEALTHY = "HEALTHY";
+    static final String UNHEALTHY = "UNHEALTHY";
+    static final String UNAVAILABLE = "UNAVAILABLE";
+
+    private final ApplicationConfig.Stats properties;
+    private final Counter consistencyMismatches;
+
+    // Guarded by this, published as copies so a DTO never changes after it is handed out
+    private final Map<String, Contribution> contributions = new HashMap<>();
+    private final Map<String, Integer> instancesByService = new HashMap<>();
+    private final Map<String, Integer> servicesByStatus = new HashMap<>();
+    private int totalInstances;
+    private int healthyServices;
+
+    private volatile Published published;
+
+    public ServiceStatsAggregator(ApplicationConfig applicationConfig, MeterRegistry meterRegistry) {
+        this.properties = applicationConfig.getStats();
+        this.consistencyMismatches = Counter.builder("consul.stats.consistency.mismatches")
+                .description("Incremental stats that diverged from a full recompute")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return published != null;
+    }
+
+    public ServiceStatsDto getStats() {
+        Published current = published;
+        return current != null ? current.stats() : null;
+    }
+
+    /**
+     * The last published stats together with the registry index they describe.
+     */
+    public Published getPublished() {
+        return published;
+    }
+
+    @EventListener
+    public synchronized void onRegistryChanged(RegistryChangedEvent event) {
+        if (event.previous().isEmpty() || published == null) {
+            reset();
+            event.current().instances().forEach(this::add);
+        } else {
+            for (RegistryChangedEvent.ServiceChange change : event.changes()) {
+                remove(change.serviceName());
+                if (!change.isRemoved()) {
+                    add(change.serviceName(), change.current());
+                }
+            }
+        }
+
+        publish(event.current().index());
+
+        if (properties.isConsistencyCheck()) {
+            verify(event.current());
+        }
+    }
+
+    /**
+     * Full O(services + instances) computation, used by the consistency check.
+     */
+    public static ServiceStatsDto compute(RegistrySnapshot snapshot) {
+        Map<String, Integer> instancesByService = new HashMap<>();
+        Map<String, Integer> servicesByStatus = new HashMap<>();
+        int totalInstances = 0;
+        int healthyServices = 0;
+
+        for (var entry : snapshot.instances().entrySet()) {
+            Contribution contribution = Contribution.of(entry.getValue());
+            servicesByStatus.merge(contribution.status(), 1, Integer::sum);
+            if (!UNAVAILABLE.equals(contribution.status())) {
+                instancesByService.put(entry.getKey(), contribution.instances());
+                totalInstances += contribution.instances();
+            }
+            if (HEALTHY.equals(contribution.status())) {
+                healthyServices++;
+            }
+        }
+
+        int totalServices = snapshot.instances().size();
+        return ServiceStatsDto.builder()
+                .totalServices(totalServices)
+                .healthyServices(healthyServices)
+                .unhealthyServices(totalServices - healthyServices)
+                .unknownServices(0)
+                .totalInstances(totalInstances)
+                .servicesByStatus(servicesByStatus)
+                .instancesByService(instancesByService)
+                .partial(false)
+                .partialServices(List.of())
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+
+    private void add(String serviceName, List<ServiceInstanceDto> instances) {
+        Contribution contribution = Contribution.of(instances);
+        contributions.put(serviceName, contribution);
+        servicesByStatus.merge(contribution.status(), 1, Integer::sum);
+        if (!UNAVAILABLE.equals(contribution.status())) {
+            instancesByService.put(serviceName, contribution.instances());
+            totalInstances += contribution.instances();
+        }
+        if (HEALTHY.equals(contribution.status())) {
+            healthyServices++;
+        }
+    }
+
+    private void remove(String serviceName) {
+        Contribution contribution = contributions.remove(serviceName);
+        if (contribution == null) {
+            return;
+        }
+        servicesByStatus.computeIfPresent(contribution.status(), (status, count) -> count > 1 ? count - 1 : null);
+        if (!UNAVAILABLE.equals(contribution.status())) {
+            instancesByService.remove(serviceName);
+            totalInstances -= contribution.instances();
+        }
+        if (HEALTHY.equals(contribution.status())) {
+            healthyServices--;
+        }
+    }
+
+    private void reset() {
+        contributions.clear();
+        instancesByService.clear();
+        servicesByStatus.clear();
+        totalInstances = 0;
+        healthyServices = 0;
+    }
+
+    private void publish(long index) {
+        int totalServices = contributions.size();
+        ServiceStatsDto stats = ServiceStatsDto.builder()
+                .totalServices(totalServices)
+                .healthyServices(healthyServices)
+                .unhealthyServices(totalServices - healthyServices)
+                .unknownServices(0)
+                .totalInstances(totalInstances)
+                .servicesByStatus(Map.copyOf(servicesByStatus))
+                .instancesByService(Map.copyOf(instancesByService))
+                .partial(false)
+                .partialServices(List.of())
+                .lastUpdated(LocalDateTime.now())
+                .build();
+        published = new Published(stats, index);
+    }
+
+    private void verify(RegistrySnapshot snapshot) {
+        ServiceStatsDto expected = compute(snapshot);
+        ServiceStatsDto actual = published.stats();
+
+        boolean consistent = Objects.equals(expected.getTotalServices(), actual.getTotalServices())
+                && Objects.equals(expected.getHealthyServices(), actual.getHealthyServices())
+                && Objects.equals(expected.getTotalInstances(), actual.getTotalInstances())
+                && expected.getServicesByStatus().equals(actual.getServicesByStatus())
+                && expected.getInstancesByService().equals(actual.getInstancesByService());
+
+        if (!consistent) {
+            consistencyMismatches.increment();
+            log.error("❌ Incremental service stats diverged at index {}: expected {} but was {}, rebuilding",
+                    snapshot.index(), expected, actual);
+            reset();
+            snapshot.instances().forEach(this::add);
+            publish(snapshot.index());
+        }
+    }
+
+    /**
+     * Stats and the registry index they were computed at. {@code index} is negative for stats
+     * computed straight from Consul, which have no version and therefore no ETag.
+     */
+    public record Published(ServiceStatsDto stats, long index) {
+
+        public String etag() {
+            return index < 0 ? null : "W/\"stats-" + index + "\"";
+        }
+    }
+
+    private record Contribution(int instances, String status) {
+
+        static Contribution of(List<ServiceInstanceDto> instances) {
+            if (instances.isEmpty()) {
+                return new Contribution(0, UNAVAILABLE);
+            }
+            boolean hasHealthyInstances = instances.stream()
+                    .anyMatch(instance -> "UP".equals(instance.getStatus()) || instance.getStatus() == null);
+            return new Contribution(instances.size(), hasHealthyInstances ? HEALTHY : UNHEALTHY);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package org.devquality.consulservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.ConsulConnectionException;
+import org.devquality.consulservice.web.dtos.InstanceChangeEventDto;
+import org.devquality.consulservice.web.dtos.InstanceStatusChangeDto;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Pushes instance deltas to Server-Sent Events subscribers. Changes are debounced per
+ * service: the first change opens a window, and when it closes subscribers receive the
+ * net difference against the state before the window, so an instance flapping inside
+ * the window produces no event at all. The last deltas per service are kept so clients
+ * can resume from a registry index. Each subscriber has its own ordered send queue, so a
+ * slow client only ever delays itself.
+ */
+@Component
+@Slf4j
+public class ServiceWatchHub {
+
+    static final String SNAPSHOT = "SNAPSHOT";
+    static final String DELTA = "DELTA";
+
+    private final ServiceRegistryCache registryCache;
+    private final ObjectMapper objectMapper;
+    private final ApplicationConfig.Watch properties;
+    private final Counter eventsSent;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("consul-watch-debounce").daemon(true).factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("consul-watch-send-", 0).factory());
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, PendingChange> pending = new HashMap<>();
+    private final Map<String, History> histories = new HashMap<>();
+    private boolean tracking;
+    // Services without a history have had no delta since this index
+    private long historyFloor = Long.MAX_VALUE;
+
+    public ServiceWatchHub(ServiceRegistryCache registryCache,
+                           ObjectMapper objectMapper,
+                           ApplicationConfig applicationConfig,
+                           MeterRegistry meterRegistry) {
+        this.registryCache = registryCache;
+        this.objectMapper = objectMapper;
+        this.properties = applicationConfig.getWatch();
+
+        Gauge.builder("consul.watch.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open Server-Sent Events watch streams")
+                .register(meterRegistry);
+        this.eventsSent = Counter.builder("consul.watch.events")
+                .description("Watch events written to subscribers")
+                .register(meterRegistry);
+
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String serviceName, Long resumeFrom) {
+        if (!registryCache.isReady()) {
+            throw new ConsulConnectionException("Watch streams are available once the local registry is loaded");
+        }
+
+        Subscriber subscriber = new Subscriber(serviceName, new SseEmitter(properties.getEmitterTimeout().toMillis()));
+        SseEmitter emitter = subscriber.emitter;
+        Runnable unsubscribe = () -> unsubscribe(subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        List<InstanceChangeEventDto> replay;
+        synchronized (this) {
+            // Replay is queued before the subscriber can see a broadcast, so deltas never overtake it
+            replay = replay(serviceName, resumeFrom);
+            if (replay == null) {
+                RegistrySnapshot snapshot = registryCache.getSnapshot();
+                replay = List.of(InstanceChangeEventDto.builder()
+                        .index(snapshot.index())
+                        .serviceName(serviceName)
+                        .type(SNAPSHOT)
+                        .instances(snapshot.instancesOf(serviceName))
+                        .timestamp(LocalDateTime.now())
+                        .build());
+                subscriber.snapshotIndex = snapshot.index();
+            }
+            for (InstanceChangeEventDto event : replay) {
+                subscriber.enqueue(event.getType(), event.getIndex(), serialize(event));
+            }
+            subscribers.computeIfAbsent(serviceName, name -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        log.info("📡 New watch subscriber for service '{}' (resume from {}, {} events replayed)",
+                serviceName, resumeFrom, replay.size());
+        return emitter;
+    }
+
+    @EventListener
+    public synchronized void onRegistryChanged(RegistryChangedEvent event) {
+        long index = event.current().index();
+
+        if (!tracking) {
+            tracking = true;
+            historyFloor = event.previous().isEmpty() ? index : event.previous().index();
+            if (event.previous().isEmpty()) {
+                // Initial load: nobody could subscribe before it, there is nothing to diff against
+                return;
+            }
+        }
+
+        for (RegistryChangedEvent.ServiceChange change : event.changes()) {
+            PendingChange pendingChange = pending.get(change.serviceName());
+            if (pendingChange == null) {
+                pendingChange = new PendingChange(change.previous() != null ? change.previous() : List.of());
+                pending.put(change.serviceName(), pendingChange);
+                scheduler.schedule(() -> flush(change.serviceName()),
+                        properties.getDebounce().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            pendingChange.latest = change.current() != null ? change.current() : List.of();
+            pendingChange.index = index;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private synchronized void flush(String serviceName) {
+        PendingChange pendingChange = pending.remove(serviceName);
+        if (pendingChange == null) {
+            return;
+        }
+        InstanceChangeEventDto event = diff(serviceName, pendingChange);
+        if (event == null) {
+            return;
+        }
+
+        if (pendingChange.latest.isEmpty() && !registryCache.getSnapshot().instances().containsKey(serviceName)) {
+            // Service is gone: drop its history, resumes from before this point get a snapshot instead
+            histories.remove(serviceName);
+            historyFloor = Math.max(historyFloor, event.getIndex());
+        } else {
+            histories.computeIfAbsent(serviceName, name -> new History(historyFloor, properties.getHistorySize()))
+                    .add(event);
+        }
+
+        // Queued under the hub lock so every subscriber sees deltas in index order
+        Set<Subscriber> targets = subscribers.get(serviceName);
+        if (targets != null && !targets.isEmpty()) {
+            String payload = serialize(event);
+            // A snapshot taken inside the debounce window already holds this state
+            targets.stream()
+                    .filter(subscriber -> subscriber.snapshotIndex < event.getIndex())
+                    .forEach(subscriber -> subscriber.enqueue(DELTA, event.getIndex(), payload));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.serviceName, (name, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void heartbeat() {
+        long sendTimeout = properties.getSendTimeout().toNanos();
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > sendTimeout) {
+                log.warn("⚠️ Dropping watch subscriber for '{}', a write has been blocked for over {}s",
+                        subscriber.serviceName, properties.getSendTimeout().toSeconds());
+                subscriber.close(new TimeoutException("Watch event write timed out"));
+            } else {
+                subscriber.enqueue(null, 0, null);
+            }
+        }));
+    }
+
+    /**
+     * Events after {@code resumeFrom}, or {@code null} when the history no longer covers it
+     * and the subscriber needs a full snapshot.
+     */
+    private List<InstanceChangeEventDto> replay(String serviceName, Long resumeFrom) {
+        if (resumeFrom == null || !tracking) {
+            return null;
+        }
+        History history = histories.get(serviceName);
+        if (history == null) {
+            return resumeFrom >= historyFloor ? List.of() : null;
+        }
+        return history.after(resumeFrom);
+    }
+
+    private InstanceChangeEventDto diff(String serviceName, PendingChange change) {
+        Map<String, ServiceInstanceDto> before = byInstanceId(change.baseline);
+        Map<String, ServiceInstanceDto> after = byInstanceId(change.latest);
+
+        List<ServiceInstanceDto> added = new ArrayList<>();
+        List<ServiceInstanceDto> updated = new ArrayList<>();
+        List<InstanceStatusChangeDto> statusChanged = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+
+        after.forEach((instanceId, current) -> {
+            ServiceInstanceDto previous = before.get(instanceId);
+            if (previous == null) {
+                added.add(current);
+                return;
+            }
+            if (!Objects.equals(previous.getStatus(), current.getStatus())) {
+                statusChanged.add(InstanceStatusChangeDto.builder()
+                        .instanceId(instanceId)
+                        .previousStatus(previous.getStatus())
+                        .status(current.getStatus())
+                        .build());
+            }
+            if (!sameExceptStatus(previous, current)) {
+                updated.add(current);
+            }
+        });
+        before.keySet().stream().filter(instanceId -> !after.containsKey(instanceId)).forEach(removed::add);
+
+        if (added.isEmpty() && updated.isEmpty() && statusChanged.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+
+        return InstanceChangeEventDto.builder()
+                .index(change.index)
+                .serviceName(serviceName)
+                .type(DELTA)
+                .added(added)
+                .removed(removed)
+                .updated(updated)
+                .statusChanged(statusChanged)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static boolean sameExceptStatus(ServiceInstanceDto a, ServiceInstanceDto b) {
+        return Objects.equals(a.getHost(), b.getHost())
+                && Objects.equals(a.getPort(), b.getPort())
+                && Objects.equals(a.getUri(), b.getUri())
+                && Objects.equals(a.getSecure(), b.getSecure())
+                && Objects.equals(a.getScheme(), b.getScheme())
+                && Objects.equals(a.getMetadata(), b.getMetadata());
+    }
+
+    private static Map<String, ServiceInstanceDto> byInstanceId(List<ServiceInstanceDto> instances) {
+        Map<String, ServiceInstanceDto> byId = new LinkedHashMap<>();
+        instances.forEach(instance -> byId.put(instance.getInstanceId(), instance));
+        return byId;
+    }
+
+    private String serialize(InstanceChangeEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize watch event", e);
+        }
+    }
+
+    private final class Subscriber {
+        private final String serviceName;
+        private final SseEmitter emitter;
+        // Guarded by this; drained by at most one sender thread at a time
+        private final ArrayDeque<Outgoing> queue = new ArrayDeque<>();
+        private boolean draining;
+        private volatile boolean closed;
+        private volatile long sendingSince;
+        // Guarded by the hub: index of the snapshot it was sent on subscribe, -1 after a resume
+        private long snapshotIndex = -1;
+
+        private Subscriber(String serviceName, SseEmitter emitter) {
+            this.serviceName = serviceName;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues an event, or a keepalive comment when {@code type} is {@code null}.
+         */
+        void enqueue(String type, long index, String payload) {
+            if (closed) {
+                return;
+            }
+            Outgoing outgoing = type == null
+                    ? new Outgoing(SseEmitter.event().comment("keepalive"), false)
+                    : new Outgoing(SseEmitter.event().id(String.valueOf(index)).name(type.toLowerCase())
+                            .data(payload, MediaType.APPLICATION_JSON), true);
+            int queued;
+            synchronized (this) {
+                queued = queue.size();
+                if (queued < properties.getMaxQueuedEvents()) {
+                    queue.addLast(outgoing);
+                    if (!draining) {
+                        draining = true;
+                        senders.execute(this::drain);
+                    }
+                    return;
+                }
+            }
+            log.warn("⚠️ Dropping watch subscriber for '{}', {} events behind", serviceName, queued);
+            close(new IllegalStateException("Watch subscriber fell too far behind"));
+        }
+
+        void close(Exception cause) {
+            closed = true;
+            unsubscribe(this);
+            synchronized (this) {
+                queue.clear();
+            }
+            emitter.completeWithError(cause);
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing outgoing;
+                synchronized (this) {
+                    outgoing = queue.pollFirst();
+                    if (outgoing == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                sendingSince = System.nanoTime();
+                try {
+                    emitter.send(outgoing.event());
+                    if (outgoing.counted()) {
+                        eventsSent.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close(e);
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+        }
+    }
+
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean counted) {
+    }
+
+    private static final class PendingChange {
+        private final List<ServiceInstanceDto> baseline;
+        private List<ServiceInstanceDto> latest;
+        private long index;
+
+        private PendingChange(List<ServiceInstanceDto> baseline) {
+            this.baseline = baseline;
+        }
+    }
+
+    private static final class History {
+        private final ArrayDeque<InstanceChangeEventDto> events = new ArrayDeque<>();
+        private final int capacity;
+        private long coveredFrom;
+
+        private History(long coveredFrom, int capacity) {
+            this.coveredFrom = coveredFrom;
+            this.capacity = capacity;
+        }
+
+        void add(InstanceChangeEventDto event) {
+            if (events.size() == capacity) {
+                coveredFrom = events.removeFirst().getIndex();
+            }
+            events.addLast(event);
+        }
+
+        List<InstanceChangeEventDto> after(long index) {
+            if (index < coveredFrom) {
+                return null;
+            }
+            return events.stream().filter(event -> event.getIndex() > index).toList();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.devquality.consulservice.exception.ConsulConnectionException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent callers asking for the same key share the result of a
+ * single in-flight call. Nothing is cached once the call completes. Callers that join a
+ * call wait at most {@code maxWait} for it and stay interruptible while they do.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final String name;
+    private final Duration maxWait;
+    private final Counter issued;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxWait = maxWait;
+        this.issued = Counter.builder("consul.singleflight.calls")
+                .description("Calls that went upstream versus calls that joined one already in flight")
+                .tag("name", name)
+                .tag("result", "issued")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("consul.singleflight.calls")
+                .description("Calls that went upstream versus calls that joined one already in flight")
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        issued.increment();
+        try {
+            V value = call.get();
+            leader.complete(value);
+            return value;
+        } catch (Throwable t) {
+            leader.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    public double issuedCount() {
+        return issued.count();
+    }
+
+    public double coalescedCount() {
+        return coalesced.count();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConsulConnectionException(String.format(
+                    "In-flight '%s' call did not complete within %dms", name, maxWait.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsulConnectionException("Interrupted while waiting for an in-flight '" + name + "' call", e);
+        }
+    }
+}
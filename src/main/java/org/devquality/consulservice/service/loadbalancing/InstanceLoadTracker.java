@@ -0,0 +1,131 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import org.devquality.consulservice.service.RegistryChangedEvent;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance in-flight counts and latency EWMA, fed by clients reporting completed calls.
+ * Entries of instances that leave the registry are dropped, and so are acquires whose caller
+ * never reported back: counts are kept in two generations and the older one is discarded
+ * every {@code app.load-balancing.in-flight-timeout}.
+ */
+@Component
+public class InstanceLoadTracker {
+
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final ConcurrentMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public void acquire(String instanceId) {
+        loads.computeIfAbsent(instanceId, id -> new InstanceLoad()).acquire();
+    }
+
+    /**
+     * Records a completed call. Instances without an outstanding acquire are ignored, so
+     * stray or repeated reports cannot create entries.
+     */
+    public void release(String instanceId, Long latencyMillis) {
+        InstanceLoad load = loads.get(instanceId);
+        if (load == null) {
+            return;
+        }
+        load.release();
+        if (latencyMillis != null && latencyMillis >= 0) {
+            long sample = latencyMillis * 1_000_000;
+            load.ewmaNanos.updateAndGet(current -> current == 0
+                    ? Math.max(sample, 1)
+                    : Math.max((long) (current + EWMA_ALPHA * (sample - current)), 1));
+        }
+    }
+
+    public int inFlight(String instanceId) {
+        InstanceLoad load = loads.get(instanceId);
+        return load != null ? load.inFlight() : 0;
+    }
+
+    /**
+     * Latency EWMA in nanoseconds, {@code 0} while no sample has been reported.
+     */
+    public long latencyNanos(String instanceId) {
+        InstanceLoad load = loads.get(instanceId);
+        return load != null ? load.ewmaNanos.get() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.load-balancing.in-flight-timeout:PT2M}")
+    public void expireLeaked() {
+        loads.values().forEach(InstanceLoad::rotate);
+    }
+
+    @EventListener
+    public void onRegistryChanged(RegistryChangedEvent event) {
+        event.changes().forEach(change -> {
+            if (change.previous() == null) {
+                return;
+            }
+            for (ServiceInstanceDto instance : change.previous()) {
+                boolean stillRegistered = change.current() != null && change.current().stream()
+                        .anyMatch(current -> instance.getInstanceId().equals(current.getInstanceId()));
+                if (!stillRegistered) {
+                    loads.remove(instance.getInstanceId());
+                }
+            }
+        });
+    }
+
+    private static final class InstanceLoad {
+        private final AtomicLong ewmaNanos = new AtomicLong();
+        // Acquires since the last rotation in the low 32 bits, those from the one before in the high 32 bits
+        private final AtomicLong counts = new AtomicLong();
+
+        void acquire() {
+            counts.updateAndGet(InstanceLoad::acquired);
+        }
+
+        void release() {
+            counts.updateAndGet(InstanceLoad::released);
+        }
+
+        int inFlight() {
+            long packed = counts.get();
+            return (int) Math.min(Integer.MAX_VALUE, current(packed) + previous(packed));
+        }
+
+        void rotate() {
+            counts.updateAndGet(packed -> pack(current(packed), 0));
+        }
+
+        private static long acquired(long packed) {
+            long current = current(packed);
+            return current < 0xFFFF_FFFFL ? pack(previous(packed), current + 1) : packed;
+        }
+
+        // Oldest first: calls mostly complete in the order they started
+        private static long released(long packed) {
+            long previous = previous(packed);
+            long current = current(packed);
+            if (previous > 0) {
+                return pack(previous - 1, current);
+            }
+            return current > 0 ? pack(previous, current - 1) : packed;
+        }
+
+        private static long current(long packed) {
+            return packed & 0xFFFF_FFFFL;
+        }
+
+        private static long previous(long packed) {
+            return packed >>> 32;
+        }
+
+        private static long pack(long previous, long current) {
+            return previous << 32 | current;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.exception.NoHealthyInstancesException;
+import org.devquality.consulservice.exception.ServiceNotFoundException;
+import org.devquality.consulservice.service.ConsulService;
+import org.devquality.consulservice.service.ServiceRegistryCache;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses one healthy instance of a service with the requested strategy. The healthy
+ * subset is derived once per instance list and reused until the registry publishes a new one.
+ */
+@Service
+@Slf4j
+public class InstanceSelector {
+
+    public static final String DEFAULT_STRATEGY = "round-robin";
+
+    private final ConsulService consulService;
+    private final ServiceRegistryCache registryCache;
+    private final InstanceLoadTracker loadTracker;
+    private final Map<String, LoadBalancingStrategy> strategies;
+    private final ConcurrentMap<String, HealthyView> healthyViews = new ConcurrentHashMap<>();
+
+    public InstanceSelector(ConsulService consulService,
+                            ServiceRegistryCache registryCache,
+                            InstanceLoadTracker loadTracker,
+                            List<LoadBalancingStrategy> strategies) {
+        this.consulService = consulService;
+        this.registryCache = registryCache;
+        this.loadTracker = loadTracker;
+        this.strategies = strategies.stream()
+                .collect(Collectors.toUnmodifiableMap(LoadBalancingStrategy::name, Function.identity()));
+    }
+
+    public ServiceInstanceDto choose(String serviceName, String strategyName) {
+        LoadBalancingStrategy strategy = strategies.get(strategyName != null ? strategyName : DEFAULT_STRATEGY);
+        if (strategy == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown load balancing strategy '%s', expected one of %s", strategyName, strategies.keySet()));
+        }
+
+        List<ServiceInstanceDto> candidates = healthyInstances(serviceName);
+        if (candidates.isEmpty()) {
+            throw new NoHealthyInstancesException(serviceName);
+        }
+
+        ServiceInstanceDto chosen = strategy.choose(serviceName, candidates);
+        if (strategy.tracksInFlight()) {
+            loadTracker.acquire(chosen.getInstanceId());
+        }
+        return chosen;
+    }
+
+    /**
+     * Reports a call to an instance chosen earlier. Returns {@code false}, and records nothing,
+     * when {@code instanceId} is not a current instance of {@code serviceName}.
+     */
+    public boolean release(String serviceName, String instanceId, Long latencyMillis) {
+        boolean known = instances(serviceName).stream()
+                .anyMatch(instance -> instanceId.equals(instance.getInstanceId()));
+        if (!known) {
+            log.debug("⏭️ Ignoring release of unknown instance '{}' of service '{}'", instanceId, serviceName);
+            return false;
+        }
+        loadTracker.release(instanceId, latencyMillis);
+        return true;
+    }
+
+    private List<ServiceInstanceDto> instances(String serviceName) {
+        // Straight from the registry snapshot when loaded, skipping the resilience proxies
+        return registryCache.isReady()
+                ? registryCache.getInstances(serviceName)
+                : consulService.getServiceInstances(serviceName);
+    }
+
+    private List<ServiceInstanceDto> healthyInstances(String serviceName) {
+        List<ServiceInstanceDto> instances = instances(serviceName);
+        if (instances.isEmpty()) {
+            throw new ServiceNotFoundException(serviceName);
+        }
+
+        HealthyView view = healthyViews.get(serviceName);
+        if (view != null && view.source() == instances) {
+            return view.healthy();
+        }
+
+        List<ServiceInstanceDto> healthy = instances.stream()
+                .filter(instance -> "UP".equals(instance.getStatus()) || instance.getStatus() == null)
+                .toList();
+        healthyViews.put(serviceName, new HealthyView(instances, healthy));
+        return healthy;
+    }
+
+    private record HealthyView(List<ServiceInstanceDto> source, List<ServiceInstanceDto> healthy) {
+    }
+}
@@ -0,0 +1,51 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import lombok.RequiredArgsConstructor;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the instance with the lowest reported latency EWMA. Instances without samples
+ * count as fastest so they get probed; the scan starts at a random offset so ties do not
+ * all land on the same instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeastLatencyStrategy implements LoadBalancingStrategy {
+
+    private final InstanceLoadTracker loadTracker;
+
+    @Override
+    public String name() {
+        return "least-latency";
+    }
+
+    @Override
+    public boolean tracksInFlight() {
+        return true;
+    }
+
+    @Override
+    public ServiceInstanceDto choose(String serviceName, List<ServiceInstanceDto> candidates) {
+        int size = candidates.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+
+        ServiceInstanceDto best = null;
+        long bestLatency = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ServiceInstanceDto candidate = candidates.get((offset + i) % size);
+            long latency = loadTracker.latencyNanos(candidate.getInstanceId());
+            if (latency < bestLatency) {
+                best = candidate;
+                bestLatency = latency;
+                if (latency == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
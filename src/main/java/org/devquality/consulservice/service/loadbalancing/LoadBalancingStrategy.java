@@ -0,0 +1,23 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+
+import java.util.List;
+
+/**
+ * Picks one instance out of a non-empty list of healthy candidates. Implementations are
+ * called on every request and must stay allocation-free and lock-free.
+ */
+public interface LoadBalancingStrategy {
+
+    String name();
+
+    ServiceInstanceDto choose(String serviceName, List<ServiceInstanceDto> candidates);
+
+    /**
+     * Whether the caller is expected to report back through {@link InstanceLoadTracker#release}.
+     */
+    default boolean tracksInFlight() {
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import lombok.RequiredArgsConstructor;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples two distinct instances at random and keeps the one with fewer in-flight calls.
+ */
+@Component
+@RequiredArgsConstructor
+public class PowerOfTwoChoicesStrategy implements LoadBalancingStrategy {
+
+    private final InstanceLoadTracker loadTracker;
+
+    @Override
+    public String name() {
+        return "p2c";
+    }
+
+    @Override
+    public boolean tracksInFlight() {
+        return true;
+    }
+
+    @Override
+    public ServiceInstanceDto choose(String serviceName, List<ServiceInstanceDto> candidates) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstanceDto a = candidates.get(first);
+        ServiceInstanceDto b = candidates.get(second);
+        return loadTracker.inFlight(a.getInstanceId()) <= loadTracker.inFlight(b.getInstanceId()) ? a : b;
+    }
+}
@@ -0,0 +1,26 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class RoundRobinStrategy implements LoadBalancingStrategy {
+
+    private final ConcurrentMap<String, AtomicInteger> positions = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "round-robin";
+    }
+
+    @Override
+    public ServiceInstanceDto choose(String serviceName, List<ServiceInstanceDto> candidates) {
+        AtomicInteger position = positions.computeIfAbsent(serviceName, name -> new AtomicInteger());
+        return candidates.get(Math.floorMod(position.getAndIncrement(), candidates.size()));
+    }
+}
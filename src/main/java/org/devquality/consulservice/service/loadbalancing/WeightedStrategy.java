@@ -0,0 +1,90 @@
+package org.devquality.consulservice.service.loadbalancing;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random selection proportional to the {@code weight} metadata value (default 1). Weights are
+ * parsed once per candidate list, which the selector hands out unchanged until the registry
+ * changes, and summed as longs so large values cannot overflow.
+ */
+@Component
+public class WeightedStrategy implements LoadBalancingStrategy {
+
+    static final String WEIGHT_KEY = "weight";
+    private static final int DEFAULT_WEIGHT = 1;
+
+    private final ConcurrentMap<String, Weights> weights = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "weighted";
+    }
+
+    @Override
+    public ServiceInstanceDto choose(String serviceName, List<ServiceInstanceDto> candidates) {
+        Weights current = weights.get(serviceName);
+        if (current == null || current.source() != candidates) {
+            current = Weights.of(candidates);
+            weights.put(serviceName, current);
+        }
+
+        long total = current.total();
+        if (total <= 0) {
+            return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+        }
+
+        return candidates.get(current.indexOf(ThreadLocalRandom.current().nextLong(total)));
+    }
+
+    static int weightOf(ServiceInstanceDto instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        String weight = metadata != null ? metadata.get(WEIGHT_KEY) : null;
+        if (weight == null) {
+            return DEFAULT_WEIGHT;
+        }
+        try {
+            return Math.max(Integer.parseInt(weight.trim()), 0);
+        } catch (NumberFormatException e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    private record Weights(List<ServiceInstanceDto> source, long[] cumulative) {
+
+        static Weights of(List<ServiceInstanceDto> candidates) {
+            long[] cumulative = new long[candidates.size()];
+            long sum = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += weightOf(candidates.get(i));
+                cumulative[i] = sum;
+            }
+            return new Weights(candidates, cumulative);
+        }
+
+        // First instance whose cumulative weight exceeds target, zero weights are never picked
+        int indexOf(long target) {
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] > target) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        long total() {
+            return cumulative.length > 0 ? cumulative[cumulative.length - 1] : 0;
+        }
+    }
+}
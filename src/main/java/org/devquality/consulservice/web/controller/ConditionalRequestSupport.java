@@ -0,0 +1,57 @@
+package org.devquality.consulservice.web.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates {@code If-None-Match} before a response is built, so unchanged resources are
+ * answered with {@code 304} without touching the DTOs or Jackson.
+ */
+@Component
+public class ConditionalRequestSupport {
+
+    private enum Outcome { UNCACHEABLE, NOT_MODIFIED, MODIFIED }
+
+    private final MeterRegistry meterRegistry;
+    // Built once per endpoint, a request only increments
+    private final Map<String, Map<Outcome, Counter>> counters = new ConcurrentHashMap<>();
+
+    public ConditionalRequestSupport(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns {@code true} when the client copy is current; the response is then already a
+     * {@code 304} and the handler should return {@code null}. A {@code null} etag means the
+     * resource cannot be validated right now (registry not loaded, stale data).
+     */
+    public boolean isNotModified(WebRequest request, String endpoint, String etag) {
+        Map<Outcome, Counter> outcomes = counters.computeIfAbsent(endpoint, this::register);
+        if (etag == null) {
+            outcomes.get(Outcome.UNCACHEABLE).increment();
+            return false;
+        }
+
+        boolean notModified = request.checkNotModified(etag);
+        outcomes.get(notModified ? Outcome.NOT_MODIFIED : Outcome.MODIFIED).increment();
+        return notModified;
+    }
+
+    private Map<Outcome, Counter> register(String endpoint) {
+        Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("consul.http.conditional")
+                    .description("Conditional GET outcomes, not_modified is the 304 hit rate")
+                    .tag("endpoint", endpoint)
+                    .tag("result", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,145 @@
+package org.devquality.consulservice.web.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.service.ConsulService;
+import org.devquality.consulservice.service.SingleFlight;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot behind {@code /api/v1/metrics/custom}. The MXBeans and Consul stats are
+ * read at most once per refresh interval; when a snapshot expires, concurrent callers share
+ * a single recomputation instead of each taking their own.
+ */
+@Component
+@Slf4j
+public class CustomMetricsSnapshot {
+
+    private static final String KEY = "custom";
+
+    private final ConsulService consulService;
+    private final ApplicationConfig.MetricsSnapshot properties;
+    private final SingleFlight<String, Snapshot> refreshFlight;
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+    private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+    private final LocalDateTime startTime = LocalDateTime.now();
+
+    private volatile Snapshot snapshot;
+
+    public CustomMetricsSnapshot(ConsulService consulService,
+                                 ApplicationConfig applicationConfig,
+                                 MeterRegistry meterRegistry) {
+        this.consulService = consulService;
+        this.properties = applicationConfig.getMetricsSnapshot();
+        this.refreshFlight = new SingleFlight<>("custom-metrics",
+                applicationConfig.getCoalescing().getMaxWait(), meterRegistry);
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && current.isFresh(properties.getRefreshInterval())) {
+            return current;
+        }
+        return refreshFlight.execute(KEY, () -> {
+            // A flight that finished just before this one joined may already have refreshed it
+            Snapshot latest = snapshot;
+            if (latest != null && latest.isFresh(properties.getRefreshInterval())) {
+                return latest;
+            }
+            Snapshot computed = new Snapshot(compute(), System.nanoTime());
+            snapshot = computed;
+            return computed;
+        });
+    }
+
+    /**
+     * Seconds a client may reuse {@code snapshot}, the remainder of its refresh interval.
+     */
+    public long maxAgeSeconds(Snapshot snapshot) {
+        long remaining = properties.getRefreshInterval().toNanos() - (System.nanoTime() - snapshot.takenAtNanos());
+        return Math.max(0, Duration.ofNanos(remaining).toSeconds());
+    }
+
+    private Map<String, Object> compute() {
+        Map<String, Object> metrics = new HashMap<>();
+
+        // Memory metrics
+        long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+        long heapMax = memoryBean.getHeapMemoryUsage().getMax();
+        long nonHeapUsed = memoryBean.getNonHeapMemoryUsage().getUsed();
+        long nonHeapMax = memoryBean.getNonHeapMemoryUsage().getMax();
+
+        metrics.put("memory", Map.of(
+                "heap_used_mb", heapUsed / (1024 * 1024),
+                "heap_max_mb", heapMax / (1024 * 1024),
+                "heap_usage_percent", Math.round((double) heapUsed / heapMax * 100),
+                "non_heap_used_mb", nonHeapUsed / (1024 * 1024),
+                "non_heap_max_mb", nonHeapMax > 0 ? nonHeapMax / (1024 * 1024) : -1,
+                "total_memory_mb", Runtime.getRuntime().totalMemory() / (1024 * 1024),
+                "free_memory_mb", Runtime.getRuntime().freeMemory() / (1024 * 1024)
+        ));
+
+        // System metrics
+        metrics.put("system", Map.of(
+                "available_processors", osBean.getAvailableProcessors(),
+                "system_load_average", osBean.getSystemLoadAverage(),
+                "arch", osBean.getArch(),
+                "os_name", osBean.getName(),
+                "os_version", osBean.getVersion()
+        ));
+
+        // Runtime metrics
+        metrics.put("runtime", Map.of(
+                "uptime_ms", runtimeBean.getUptime(),
+                "uptime_minutes", runtimeBean.getUptime() / (1000 * 60),
+                "start_time", LocalDateTime.now().minusNanos(runtimeBean.getUptime() * 1_000_000),
+                "jvm_name", runtimeBean.getVmName(),
+                "jvm_version", runtimeBean.getVmVersion(),
+                "jvm_vendor", runtimeBean.getVmVendor()
+        ));
+
+        // Application metrics, current_time is when this snapshot was taken
+        metrics.put("application", Map.of(
+                "service_start_time", startTime,
+                "current_time", LocalDateTime.now(),
+                "service_uptime_minutes", Duration.between(startTime, LocalDateTime.now()).toMinutes()
+        ));
+
+        // Consul metrics (if available)
+        try {
+            var serviceStats = consulService.getServiceStats();
+            metrics.put("consul", Map.of(
+                    "total_services", serviceStats.getTotalServices(),
+                    "healthy_services", serviceStats.getHealthyServices(),
+                    "unhealthy_services", serviceStats.getUnhealthyServices(),
+                    "unknown_services", serviceStats.getUnknownServices(),
+                    "total_instances", serviceStats.getTotalInstances(),
+                    "last_updated", serviceStats.getLastUpdated()
+            ));
+        } catch (Exception e) {
+            log.warn("⚠️ Could not retrieve Consul metrics: {}", e.getMessage());
+            metrics.put("consul", Map.of("status", "UNAVAILABLE", "error", String.valueOf(e.getMessage())));
+        }
+
+        log.debug("📊 Custom metrics snapshot recomputed");
+        return Map.copyOf(metrics);
+    }
+
+    public record Snapshot(Map<String, Object> metrics, long takenAtNanos) {
+
+        boolean isFresh(Duration refreshInterval) {
+            return System.nanoTime() - takenAtNanos < refreshInterval.toNanos();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.service.ConsulConnectivityProbe;
 import org.devquality.consulservice.web.dtos.ApiResponseDto;
 import org.springframework.core.env.Environment;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +29,7 @@ public class HealthController {
 
     private final Environment environment;
     private final ApplicationConfig applicationConfig;
+    private final ConsulConnectivityProbe consulProbe;
     private final LocalDateTime startTime = LocalDateTime.now();
 
     @Operation(summary = "Application health check", description = "Get the current health status of the application")
@@ -52,11 +54,13 @@ public class HealthController {
             // Health checks
             Map<String, String> checks = new HashMap<>();
             checks.put("application", "UP");
-            checks.put("consul", getConsulHealthStatus());
+            ConsulConnectivityProbe.Result consul = consulProbe.getResult();
+            checks.put("consul", getConsulHealthStatus(consul));
             checks.put("disk_space", getDiskSpaceStatus());
             checks.put("memory", getMemoryStatus());
 
             health.put("checks", checks);
+            health.put("consul", consul.toDetails());
             health.put("version", Objects.requireNonNullElse(applicationConfig.getVersion(), "1.0.0"));
 
             log.debug("🏥 Health check requested for service: {}", serviceName);
@@ -135,13 +139,9 @@ public class HealthController {
         }
     }
 
-    private String getConsulHealthStatus() {
-        try {
-            // En un caso real, verificarías la conexión con Consul
-            return "UP";
-        } catch (Exception e) {
-            return "DOWN";
-        }
+    private String getConsulHealthStatus(ConsulConnectivityProbe.Result consul) {
+        // Result of the background probe, a health request never waits on Consul
+        return consul.status().name();
     }
 
     private String getDiskSpaceStatus() {
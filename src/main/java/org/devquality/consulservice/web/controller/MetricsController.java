@@ -1,14 +1,17 @@
 package org.devquality.consulservice.web.controller;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.devquality.consulservice.service.ConsulService;
+import org.devquality.consulservice.service.ConsulConnectivityProbe;
+import org.devquality.consulservice.service.ServiceIsolation;
 import org.devquality.consulservice.web.dtos.ApiResponseDto;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,7 +23,10 @@ import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/metrics")
@@ -29,12 +35,13 @@ import java.util.Map;
 @Tag(name = "Metrics & Monitoring", description = "Application and system metrics endpoints")
 public class MetricsController {
 
-    private final ConsulService consulService;
+    private final ServiceIsolation serviceIsolation;
+    private final ConsulConnectivityProbe consulProbe;
+    private final CustomMetricsSnapshot customMetrics;
     private final MeterRegistry meterRegistry;
     private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
     private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
     private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
-    private final LocalDateTime startTime = LocalDateTime.now();
 
     @Operation(summary = "Get custom application metrics", description = "Retrieve detailed application and system metrics")
     @ApiResponses({
@@ -44,70 +51,11 @@ public class MetricsController {
     @GetMapping("/custom")
     public ResponseEntity<ApiResponseDto<Map<String, Object>>> getCustomMetrics() {
         try {
-            Map<String, Object> metrics = new HashMap<>();
-
-            // Memory metrics
-            long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
-            long heapMax = memoryBean.getHeapMemoryUsage().getMax();
-            long nonHeapUsed = memoryBean.getNonHeapMemoryUsage().getUsed();
-            long nonHeapMax = memoryBean.getNonHeapMemoryUsage().getMax();
-
-            metrics.put("memory", Map.of(
-                    "heap_used_mb", heapUsed / (1024 * 1024),
-                    "heap_max_mb", heapMax / (1024 * 1024),
-                    "heap_usage_percent", Math.round((double) heapUsed / heapMax * 100),
-                    "non_heap_used_mb", nonHeapUsed / (1024 * 1024),
-                    "non_heap_max_mb", nonHeapMax > 0 ? nonHeapMax / (1024 * 1024) : -1,
-                    "total_memory_mb", Runtime.getRuntime().totalMemory() / (1024 * 1024),
-                    "free_memory_mb", Runtime.getRuntime().freeMemory() / (1024 * 1024)
-            ));
-
-            // System metrics
-            metrics.put("system", Map.of(
-                    "available_processors", osBean.getAvailableProcessors(),
-                    "system_load_average", osBean.getSystemLoadAverage(),
-                    "arch", osBean.getArch(),
-                    "os_name", osBean.getName(),
-                    "os_version", osBean.getVersion()
-            ));
-
-            // Runtime metrics
-            metrics.put("runtime", Map.of(
-                    "uptime_ms", runtimeBean.getUptime(),
-                    "uptime_minutes", runtimeBean.getUptime() / (1000 * 60),
-                    "start_time", LocalDateTime.now().minusNanos(runtimeBean.getUptime() * 1_000_000),
-                    "jvm_name", runtimeBean.getVmName(),
-                    "jvm_version", runtimeBean.getVmVersion(),
-                    "jvm_vendor", runtimeBean.getVmVendor()
-            ));
-
-            // Application metrics
-            metrics.put("application", Map.of(
-                    "service_start_time", startTime,
-                    "current_time", LocalDateTime.now(),
-                    "service_uptime_minutes", java.time.Duration.between(startTime, LocalDateTime.now()).toMinutes()
-            ));
-
-            // Consul metrics (if available)
-            try {
-                var serviceStats = consulService.getServiceStats();
-                metrics.put("consul", Map.of(
-                        "total_services", serviceStats.getTotalServices(),
-                        "healthy_services", serviceStats.getHealthyServices(),
-                        "unhealthy_services", serviceStats.getUnhealthyServices(),
-                        "total_instances", serviceStats.getTotalInstances(),
-                        "last_updated", serviceStats.getLastUpdated()
-                ));
-            } catch (Exception e) {
-                log.warn("⚠️ Could not retrieve Consul metrics: {}", e.getMessage());
-                metrics.put("consul", Map.of("status", "UNAVAILABLE", "error", e.getMessage()));
-            }
-
-            log.debug("📊 Custom metrics retrieved successfully");
+            CustomMetricsSnapshot.Snapshot snapshot = customMetrics.get();
 
-            return ResponseEntity.ok(
-                    ApiResponseDto.success(metrics, "Custom metrics retrieved successfully")
-            );
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(customMetrics.maxAgeSeconds(snapshot), TimeUnit.SECONDS))
+                    .body(ApiResponseDto.success(snapshot.metrics(), "Custom metrics retrieved successfully"));
 
         } catch (Exception e) {
             log.error("❌ Error retrieving custom metrics: {}", e.getMessage());
@@ -144,17 +92,24 @@ public class MetricsController {
             checks.put("memory", memoryOk ? "OK" : "WARNING");
             checks.put("cpu_load", loadOk ? "OK" : "WARNING");
 
-            try {
-                consulService.getRegisteredServices();
-                checks.put("consul_connection", "OK");
-            } catch (Exception e) {
-                checks.put("consul_connection", "ERROR");
-                overallStatus = "UNHEALTHY";
+            // Last background probe, status requests never wait on Consul
+            ConsulConnectivityProbe.Result consul = consulProbe.getResult();
+            switch (consul.status()) {
+                case UP -> checks.put("consul_connection", "OK");
+                case DOWN -> {
+                    checks.put("consul_connection", "ERROR");
+                    overallStatus = "UNHEALTHY";
+                }
+                default -> checks.put("consul_connection", consul.status().name());
             }
 
             checks.put("config", "LOADED");
             status.put("checks", checks);
             status.put("overall_status", overallStatus);
+            status.put("consul", consul.toDetails());
+
+            // Per-service circuit breaker and bulkhead state
+            status.put("service_isolation", serviceIsolation.getStates());
 
             // Performance indicators
             status.put("performance", Map.of(
@@ -192,13 +147,69 @@ public class MetricsController {
 
             metrics.put("http_requests", Map.of(
                     "total_count", httpRequestsTotal.count(),
-                    "total_time_seconds", httpRequestsTotal.totalTime(java.util.concurrent.TimeUnit.SECONDS),
-                    "mean_duration_ms", httpRequestsTotal.mean(java.util.concurrent.TimeUnit.MILLISECONDS)
+                    "total_time_seconds", httpRequestsTotal.totalTime(TimeUnit.SECONDS),
+                    "mean_duration_ms", httpRequestsTotal.mean(TimeUnit.MILLISECONDS)
             ));
 
             metrics.put("jvm_memory_used_bytes", jvmMemoryUsed.value());
             metrics.put("system_cpu_usage", systemCpuUsage.value());
 
+            // Request coalescing: calls sent to Consul vs calls that joined one already in flight
+            Map<String, Map<String, Double>> coalescing = new HashMap<>();
+            meterRegistry.find("consul.singleflight.calls").counters().forEach(counter ->
+                    coalescing.computeIfAbsent(counter.getId().getTag("name"), name -> new HashMap<>())
+                            .put(counter.getId().getTag("result"), counter.count()));
+            metrics.put("request_coalescing", coalescing);
+
+            // Conditional GETs answered with 304 vs full responses, per endpoint
+            Map<String, Map<String, Double>> conditional = new HashMap<>();
+            meterRegistry.find("consul.http.conditional").counters().forEach(counter ->
+                    conditional.computeIfAbsent(counter.getId().getTag("endpoint"), endpoint -> new HashMap<>())
+                            .put(counter.getId().getTag("result"), counter.count()));
+            metrics.put("conditional_requests", conditional);
+
+            // Consul operation latency per operation and outcome, with client-side percentiles
+            Map<String, Map<String, Object>> operations = new TreeMap<>();
+            meterRegistry.find("consul.operation").timers().forEach(timer -> {
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("count", timer.count());
+                summary.put("mean_ms", timer.mean(TimeUnit.MILLISECONDS));
+                summary.put("max_ms", timer.max(TimeUnit.MILLISECONDS));
+                for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                    summary.put("p" + Math.round(percentile.percentile() * 100) + "_ms",
+                            percentile.value(TimeUnit.MILLISECONDS));
+                }
+                operations.put(timer.getId().getTag("operation") + "." + timer.getId().getTag("outcome"), summary);
+            });
+            metrics.put("consul_operations", operations);
+
+            // Where answers came from: local registry (cache hit), Consul, or last known good data
+            Map<String, Map<String, Double>> sources = new TreeMap<>();
+            meterRegistry.find("consul.lookup.source").counters().forEach(counter ->
+                    sources.computeIfAbsent(counter.getId().getTag("operation"), operation -> new TreeMap<>())
+                            .put(counter.getId().getTag("source"), counter.count()));
+            metrics.put("lookup_sources", sources);
+
+            Map<String, Map<String, Double>> fallbacks = new TreeMap<>();
+            meterRegistry.find("consul.fallbacks").counters().forEach(counter ->
+                    fallbacks.computeIfAbsent(counter.getId().getTag("operation"), operation -> new TreeMap<>())
+                            .put(counter.getId().getTag("result"), counter.count()));
+            metrics.put("fallbacks", fallbacks);
+
+            Map<String, Double> transitions = new TreeMap<>();
+            meterRegistry.find("consul.circuitbreaker.transitions").counters().forEach(counter ->
+                    transitions.merge(counter.getId().getTag("group") + ":" + counter.getId().getTag("from")
+                            + "->" + counter.getId().getTag("to"), counter.count(), Double::sum));
+            metrics.put("circuit_breaker_transitions", transitions);
+
+            Map<String, Map<String, Object>> instanceListSizes = new TreeMap<>();
+            meterRegistry.find("consul.instances.list.size").summaries().forEach(summary ->
+                    instanceListSizes.put(summary.getId().getTag("source"), Map.of(
+                            "count", summary.count(),
+                            "mean", summary.mean(),
+                            "max", summary.max())));
+            metrics.put("instance_list_sizes", instanceListSizes);
+
             metrics.put("timestamp", LocalDateTime.now());
             metrics.put("available_meters", meterRegistry.getMeters().size());
 
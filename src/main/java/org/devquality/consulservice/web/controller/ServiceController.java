@@ -9,11 +9,23 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.devquality.consulservice.service.ConsulService;
+import org.devquality.consulservice.service.ServiceInstanceIndex;
+import org.devquality.consulservice.service.Served;
+import org.devquality.consulservice.service.ServiceNameIndex;
+import org.devquality.consulservice.service.ServiceStatsAggregator;
+import org.devquality.consulservice.service.ServiceWatchHub;
+import org.devquality.consulservice.service.loadbalancing.InstanceSelector;
 import org.devquality.consulservice.web.dtos.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -23,22 +35,59 @@ import java.util.concurrent.CompletableFuture;
 @Tag(name = "Service Discovery", description = "Consul service discovery and management operations")
 public class ServiceController {
 
+    private static final String METADATA_PARAMETER_PREFIX = "meta.";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String TOTAL_PAGES_HEADER = "X-Total-Pages";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Serialized bodies are replayed by ResponseBytesCacheFilter while the registry is unchanged
+    private static final String CACHED_TIMESTAMP_NOTE = "The response timestamp is when this representation was "
+            + "rendered and stays the same for as long as the underlying data is unchanged";
+
     private final ConsulService consulService;
+    private final ServiceWatchHub serviceWatchHub;
+    private final ConditionalRequestSupport conditionalRequests;
+    private final InstanceSelector instanceSelector;
+    private final ServiceInstanceIndex instanceIndex;
 
-    @Operation(summary = "Get all registered services", description = "Retrieve all services registered in Consul")
+    @Operation(summary = "Get all registered services",
+            description = "Retrieve the services registered in Consul, sorted by name and paged with an opaque cursor. "
+                    + "X-Total-Count holds the number of matches, X-Next-Cursor the cursor of the next page. "
+                    + CACHED_TIMESTAMP_NOTE)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Services retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Services list not modified"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
             @ApiResponse(responseCode = "503", description = "Consul connection failed")
     })
     @GetMapping("/services")
-    public ResponseEntity<ApiResponseDto<List<String>>> getRegisteredServices() {
-        log.info("📋 Retrieving all registered services from Consul");
+    public ResponseEntity<ApiResponseDto<List<String>>> getRegisteredServices(
+            @Parameter(description = "Only services whose name starts with this prefix", example = "user-")
+            @RequestParam(required = false) String prefix,
+            @Parameter(description = "Only services whose name contains this text, case-insensitive", example = "pay")
+            @RequestParam(required = false) String contains,
+            @Parameter(description = "X-Next-Cursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, app.service-listing.default-limit when omitted", example = "500")
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (conditionalRequests.isNotModified(webRequest, "services", consulService.getServicesEtag())) {
+            return null;
+        }
 
-        List<String> services = consulService.getRegisteredServices();
+        log.debug("📋 Listing services (prefix={}, contains={}, cursor={}, limit={})", prefix, contains, cursor, limit);
 
-        return ResponseEntity.ok(
-                ApiResponseDto.success(services,
-                        String.format("Successfully retrieved %d services", services.size()))
+        Served<ServiceNameIndex.Page> served = consulService.getRegisteredServices(prefix, contains, cursor, limit);
+        ServiceNameIndex.Page page = served.value();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.total()));
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(
+                ApiResponseDto.success(page.services(),
+                        String.format("Successfully retrieved %d of %d services", page.services().size(), page.total()),
+                        served.staleSince())
         );
     }
 
@@ -53,14 +102,17 @@ public class ServiceController {
 
         return consulService.getRegisteredServicesAsync()
                 .thenApply(services -> ResponseEntity.ok(
-                        ApiResponseDto.success(services,
-                                String.format("Successfully retrieved %d services", services.size()))
+                        ApiResponseDto.success(services.value(),
+                                String.format("Successfully retrieved %d services", services.value().size()),
+                                services.staleSince())
                 ));
     }
 
-    @Operation(summary = "Get service instances", description = "Retrieve all instances of a specific service")
+    @Operation(summary = "Get service instances",
+            description = "Retrieve all instances of a specific service. " + CACHED_TIMESTAMP_NOTE)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Service instances retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Service instances not modified"),
             @ApiResponse(responseCode = "404", description = "Service not found"),
             @ApiResponse(responseCode = "400", description = "Invalid service name"),
             @ApiResponse(responseCode = "503", description = "Consul connection failed")
@@ -68,16 +120,143 @@ public class ServiceController {
     @GetMapping("/services/{serviceName}")
     public ResponseEntity<ApiResponseDto<List<ServiceInstanceDto>>> getServiceInstances(
             @Parameter(description = "Name of the service", example = "user-service", required = true)
-            @PathVariable String serviceName) {
+            @PathVariable String serviceName,
+            WebRequest webRequest) {
+
+        if (conditionalRequests.isNotModified(webRequest, "instances", consulService.getInstancesEtag(serviceName))) {
+            return null;
+        }
 
         log.info("🔍 Retrieving instances for service: {}", serviceName);
 
-        List<ServiceInstanceDto> instances = consulService.getServiceInstances(serviceName);
+        Served<List<ServiceInstanceDto>> instances = consulService.lookupServiceInstances(serviceName);
 
         return ResponseEntity.ok(
-                ApiResponseDto.success(instances,
+                ApiResponseDto.success(instances.value(),
                         String.format("Successfully retrieved %d instances for service '%s'",
-                                instances.size(), serviceName))
+                                instances.value().size(), serviceName),
+                        instances.staleSince())
+        );
+    }
+
+    @Operation(summary = "Get instances of several services", description = "Retrieve the instances of a list of services in one call")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, check each entry for per-service errors"),
+            @ApiResponse(responseCode = "400", description = "Invalid batch request")
+    })
+    @PostMapping("/services/instances:batch")
+    public ResponseEntity<ApiResponseDto<Map<String, ServiceInstancesResultDto>>> getServiceInstancesBatch(
+            @Parameter(description = "Names of the services to resolve", required = true)
+            @Valid @RequestBody BatchInstancesRequestDto request) {
+
+        log.info("📦 Retrieving instances for {} services", request.getServiceNames().size());
+
+        Map<String, ServiceInstancesResultDto> results = consulService.getServiceInstancesBatch(request.getServiceNames());
+        long resolved = results.values().stream().filter(ServiceInstancesResultDto::getSuccess).count();
+
+        return ResponseEntity.ok(
+                ApiResponseDto.success(results,
+                        String.format("Resolved %d of %d services", resolved, results.size()))
+        );
+    }
+
+    @Operation(summary = "Find instances by tag and metadata",
+            description = "Query instances of every service by tag and metadata, e.g. ?tag=primary&meta.zone=eu-1. "
+                    + "Repeated tags must all match, repeated values of one metadata key match any of them")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Matching instances, total count in X-Total-Count"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size"),
+            @ApiResponse(responseCode = "503", description = "Local registry not loaded yet")
+    })
+    @GetMapping("/instances")
+    public ResponseEntity<ApiResponseDto<List<ServiceInstanceDto>>> findInstances(
+            @Parameter(description = "Tag the instances must carry", example = "primary")
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @Parameter(description = "Zero-based page number", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "100")
+            @RequestParam(defaultValue = "100") int size,
+            @Parameter(hidden = true)
+            @RequestParam MultiValueMap<String, String> parameters) {
+
+        Map<String, List<String>> metadata = new LinkedHashMap<>();
+        parameters.forEach((name, values) -> {
+            if (name.startsWith(METADATA_PARAMETER_PREFIX) && name.length() > METADATA_PARAMETER_PREFIX.length()) {
+                metadata.put(name.substring(METADATA_PARAMETER_PREFIX.length()), values);
+            }
+        });
+
+        ServiceInstanceIndex.Page result = instanceIndex.query(tags != null ? tags : List.of(), metadata, page, size);
+        int totalPages = (result.total() + size - 1) / size;
+
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.total()))
+                .header(TOTAL_PAGES_HEADER, String.valueOf(totalPages))
+                .body(ApiResponseDto.success(result.instances(),
+                        String.format("Found %d matching instances, page %d of %d",
+                                result.total(), page + 1, Math.max(totalPages, 1))));
+    }
+
+    @Operation(summary = "Watch service instances", description = "Stream instance add, remove and status-change deltas as Server-Sent Events")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Local registry not loaded yet")
+    })
+    @GetMapping(value = "/services/{serviceName}/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter watchServiceInstances(
+            @Parameter(description = "Name of the service", example = "user-service", required = true)
+            @PathVariable String serviceName,
+            @Parameter(description = "Registry index to resume from")
+            @RequestParam(required = false) Long index,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        log.info("📡 Opening watch stream for service: {}", serviceName);
+
+        return serviceWatchHub.subscribe(serviceName, lastEventId != null ? lastEventId : index);
+    }
+
+    @Operation(summary = "Choose a service instance", description = "Pick one healthy instance using a load-balancing strategy")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Instance chosen successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown strategy"),
+            @ApiResponse(responseCode = "404", description = "Service not found"),
+            @ApiResponse(responseCode = "503", description = "No healthy instances available")
+    })
+    @GetMapping("/services/{serviceName}/choose")
+    public ResponseEntity<ApiResponseDto<ServiceInstanceDto>> chooseServiceInstance(
+            @Parameter(description = "Name of the service", example = "user-service", required = true)
+            @PathVariable String serviceName,
+            @Parameter(description = "round-robin, weighted, p2c or least-latency", example = "round-robin")
+            @RequestParam(defaultValue = InstanceSelector.DEFAULT_STRATEGY) String strategy) {
+
+        ServiceInstanceDto instance = instanceSelector.choose(serviceName, strategy);
+
+        return ResponseEntity.ok(
+                ApiResponseDto.success(instance,
+                        String.format("Instance '%s' chosen with %s", instance.getInstanceId(), strategy))
+        );
+    }
+
+    @Operation(summary = "Report a completed call", description = "Release an instance chosen with p2c or least-latency and report the call latency")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Call reported, or ignored for an instance the service does not have")
+    })
+    @PostMapping("/services/{serviceName}/instances/{instanceId}/release")
+    public ResponseEntity<ApiResponseDto<String>> releaseServiceInstance(
+            @Parameter(description = "Name of the service", example = "user-service", required = true)
+            @PathVariable String serviceName,
+            @Parameter(description = "Instance that served the call", required = true)
+            @PathVariable String instanceId,
+            @Parameter(description = "Observed call latency in milliseconds")
+            @RequestParam(required = false) Long latencyMs) {
+
+        boolean recorded = instanceSelector.release(serviceName, instanceId, latencyMs);
+
+        return ResponseEntity.ok(
+                ApiResponseDto.success(instanceId, recorded
+                        ? "Call reported successfully"
+                        : "Unknown instance, report ignored")
         );
     }
 
@@ -101,19 +280,47 @@ public class ServiceController {
         );
     }
 
-    @Operation(summary = "Get service statistics", description = "Retrieve comprehensive statistics about all services")
+    @Operation(summary = "Get instance health checks", description = "Per-instance Consul health: PASSING, WARNING or CRITICAL with the output of every check")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Health checks retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Service not found"),
+            @ApiResponse(responseCode = "503", description = "Consul connection failed")
+    })
+    @GetMapping("/services/{serviceName}/health/instances")
+    public ResponseEntity<ApiResponseDto<List<ServiceHealthDto>>> getServiceInstanceHealth(
+            @Parameter(description = "Name of the service", example = "user-service", required = true)
+            @PathVariable String serviceName) {
+
+        log.info("🩺 Retrieving health checks for service: {}", serviceName);
+
+        List<ServiceHealthDto> health = consulService.getServiceHealth(serviceName);
+        long passing = health.stream().filter(instance -> "PASSING".equals(instance.getStatus())).count();
+
+        return ResponseEntity.ok(
+                ApiResponseDto.success(health,
+                        String.format("%d of %d instances of service '%s' are passing",
+                                passing, health.size(), serviceName))
+        );
+    }
+
+    @Operation(summary = "Get service statistics",
+            description = "Retrieve comprehensive statistics about all services. " + CACHED_TIMESTAMP_NOTE)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Service statistics retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Service statistics not modified"),
             @ApiResponse(responseCode = "503", description = "Consul connection failed")
     })
     @GetMapping("/services/stats")
-    public ResponseEntity<ApiResponseDto<ServiceStatsDto>> getServiceStats() {
-        log.info("📊 Retrieving service statistics");
+    public ResponseEntity<ApiResponseDto<ServiceStatsDto>> getServiceStats(WebRequest webRequest) {
+        ServiceStatsAggregator.Published stats = consulService.getPublishedServiceStats();
+        if (conditionalRequests.isNotModified(webRequest, "stats", stats.etag())) {
+            return null;
+        }
 
-        ServiceStatsDto stats = consulService.getServiceStats();
+        log.info("📊 Retrieving service statistics");
 
         return ResponseEntity.ok(
-                ApiResponseDto.success(stats, "Service statistics retrieved successfully")
+                ApiResponseDto.success(stats.stats(), "Service statistics retrieved successfully")
         );
     }
 
@@ -1,5 +1,6 @@
 package org.devquality.consulservice.web.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,12 @@ public class ApiResponseDto<T> {
     private LocalDateTime timestamp;
     private String path;
 
+    // Only present when the data comes from the last-known-good cache because Consul is unavailable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stale;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime staleSince;
+
     public static <T> ApiResponseDto<T> success(T data, String message) {
         return ApiResponseDto.<T>builder()
                 .success(true)
@@ -28,6 +35,15 @@ public class ApiResponseDto<T> {
                 .build();
     }
 
+    public static <T> ApiResponseDto<T> success(T data, String message, LocalDateTime staleSince) {
+        ApiResponseDto<T> response = success(data, message);
+        if (staleSince != null) {
+            response.setStale(true);
+            response.setStaleSince(staleSince);
+        }
+        return response;
+    }
+
     public static <T> ApiResponseDto<T> error(String message, String error) {
         return ApiResponseDto.<T>builder()
                 .success(false)
@@ -0,0 +1,21 @@
+package org.devquality.consulservice.web.dtos;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInstancesRequestDto {
+
+    @NotEmpty(message = "At least one service name is required")
+    @Size(max = 200, message = "A batch can contain at most 200 services")
+    private List<@NotBlank(message = "Service name cannot be blank") String> serviceNames;
+}
@@ -0,0 +1,26 @@
+package org.devquality.consulservice.web.dtos;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InstanceChangeEventDto {
+    private Long index;
+    private String serviceName;
+    private String type; // SNAPSHOT, DELTA
+    private List<ServiceInstanceDto> instances;
+    private List<ServiceInstanceDto> added;
+    private List<String> removed;
+    private List<ServiceInstanceDto> updated;
+    private List<InstanceStatusChangeDto> statusChanged;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,15 @@
+package org.devquality.consulservice.web.dtos;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanceStatusChangeDto {
+    private String instanceId;
+    private String previousStatus;
+    private String status;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -19,6 +20,7 @@ public class ServiceInstanceDto {
     private URI uri;
     private Boolean secure;
     private Map<String, String> metadata;
+    private List<String> tags;
     private String status;
     private String scheme;
 }
@@ -0,0 +1,23 @@
+package org.devquality.consulservice.web.dtos;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ServiceInstancesResultDto {
+    private Boolean success;
+    private List<ServiceInstanceDto> instances;
+    private String error;
+    private String message;
+    private Boolean stale;
+    private LocalDateTime staleSince;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 @Data
 @Builder
@@ -14,8 +15,12 @@ public class ServiceStatsDto {
     private Integer totalServices;
     private Integer healthyServices;
     private Integer unhealthyServices;
+    // Services whose lookup timed out or failed: neither healthy nor unhealthy, see partialServices
+    private Integer unknownServices;
     private Integer totalInstances;
     private Map<String, Integer> servicesByStatus;
     private Map<String, Integer> instancesByService;
+    private Boolean partial;
+    private List<String> partialServices;
     private LocalDateTime lastUpdated;
 }
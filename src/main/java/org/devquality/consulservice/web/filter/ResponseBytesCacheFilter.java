@@ -0,0 +1,265 @@
+package org.devquality.consulservice.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.service.RegistryChangedEvent;
+import org.devquality.consulservice.service.ServiceRegistryCache;
+import org.devquality.consulservice.service.ServiceStatsAggregator;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized bytes of the read-mostly discovery endpoints and writes them straight
+ * to the output stream while the data they were built from is unchanged. Each entry remembers
+ * the registry snapshot (or stats object) it was rendered from; a hit is an identity check, so
+ * neither the DTOs nor Jackson run. Fields such as {@code timestamp} therefore report when the
+ * representation was rendered. Conditional and cross-origin requests go through the controller.
+ * Keys hold only the query parameters an endpoint reads, and the least recently used entries
+ * are evicted once the entry count or byte budget is exceeded.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@Slf4j
+public class ResponseBytesCacheFilter extends OncePerRequestFilter {
+
+    private static final String SERVICES_PATH = "/api/v1/consul/services";
+    private static final String STATS_PATH = SERVICES_PATH + "/stats";
+    private static final String ASYNC_PATH = SERVICES_PATH + "/async";
+    private static final String GZIP = "gzip";
+    // Bodies differ per negotiated format (JSON, CBOR, Smile) as well as per encoding
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+    // Response headers that belong to the representation and are replayed on a hit
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.ETAG, "X-Total-Count", "X-Total-Pages", "X-Next-Cursor");
+
+    private final ServiceRegistryCache registryCache;
+    private final ServiceStatsAggregator statsAggregator;
+    private final ApplicationConfig.ResponseCache properties;
+    // Guarded by itself, access ordered for LRU eviction
+    private final LinkedHashMap<CacheKey, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public ResponseBytesCacheFilter(ServiceRegistryCache registryCache,
+                                    ServiceStatsAggregator statsAggregator,
+                                    ApplicationConfig applicationConfig,
+                                    MeterRegistry meterRegistry) {
+        this.registryCache = registryCache;
+        this.statsAggregator = statsAggregator;
+        this.properties = applicationConfig.getResponseCache();
+
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.bypasses = counter(meterRegistry, "bypass");
+        Gauge.builder("consul.response.cache.entries", this, ResponseBytesCacheFilter::size)
+                .description("Serialized responses currently cached")
+                .register(meterRegistry);
+        Gauge.builder("consul.response.cache.bytes", this, ResponseBytesCacheFilter::bytes)
+                .description("Bytes held by cached responses, plain and gzip")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !"GET".equals(request.getMethod())
+                || !isCacheable(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // Read before rendering: if the data changes mid-request the entry is simply never hit
+        Object version = currentVersion(pathOf(request));
+        if (version == null
+                || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.ORIGIN) != null) {
+            bypasses.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CacheKey key = keyOf(request);
+        CachedResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            write(response, cached, properties.isGzip() && acceptsGzip(request));
+            return;
+        }
+
+        misses.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        store(key, version, wrapper);
+        wrapper.copyBodyToResponse();
+    }
+
+    @EventListener
+    public void onRegistryChanged(RegistryChangedEvent event) {
+        // Entries of the old snapshot can no longer be hit, release them
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private Object currentVersion(String path) {
+        // A stale registry is reported as such per request, its bodies are not replayed
+        if (!registryCache.isReady() || registryCache.getStaleSince() != null) {
+            return null;
+        }
+        if (STATS_PATH.equals(path)) {
+            return statsAggregator.isReady() ? statsAggregator.getStats() : null;
+        }
+        return registryCache.getSnapshot();
+    }
+
+    private void store(CacheKey key, Object version, ContentCachingResponseWrapper wrapper) {
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK
+                || wrapper.getContentType() == null
+                || wrapper.getHeader(HttpHeaders.SET_COOKIE) != null) {
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] gzipBody = properties.isGzip() && body.length >= properties.getGzipMinBytes() ? gzip(body) : null;
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS) {
+            String value = wrapper.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        CachedResponse entry = new CachedResponse(version, wrapper.getContentType(), Map.copyOf(headers), body, gzipBody);
+        wrapper.setHeader(HttpHeaders.VARY, VARY);
+        if (entry.size() > properties.getMaxBytes()) {
+            return;
+        }
+        synchronized (entries) {
+            CachedResponse replaced = entries.put(key, entry);
+            bytes += entry.size() - (replaced != null ? replaced.size() : 0);
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (entries.size() > properties.getMaxEntries() || bytes > properties.getMaxBytes()) {
+                bytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    private static void write(HttpServletResponse response, CachedResponse cached, boolean gzip) throws IOException {
+        byte[] body = gzip && cached.gzipBody() != null ? cached.gzipBody() : cached.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setHeader(HttpHeaders.VARY, VARY);
+        cached.headers().forEach(response::setHeader);
+        if (body == cached.gzipBody()) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not gzip cached response: {}", e.getMessage());
+            return null;
+        }
+        return compressed.toByteArray();
+    }
+
+    private static boolean isCacheable(String path) {
+        if (SERVICES_PATH.equals(path) || STATS_PATH.equals(path)) {
+            return true;
+        }
+        // Single service lookups: /services/{serviceName}, nothing nested below it
+        return path.startsWith(SERVICES_PATH + "/")
+                && path.indexOf('/', SERVICES_PATH.length() + 1) < 0
+                && !ASYNC_PATH.equals(path);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        String contextPath = request.getContextPath();
+        String uri = request.getRequestURI();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+
+    /**
+     * Path, the parameters the endpoint reads, and Accept. Unknown or reordered parameters map
+     * to the same entry instead of each adding a copy.
+     */
+    private static CacheKey keyOf(HttpServletRequest request) {
+        String path = pathOf(request);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (!SERVICES_PATH.equals(path)) {
+            return new CacheKey(path, null, null, null, null, accept);
+        }
+        return new CacheKey(path, request.getParameter("prefix"), request.getParameter("contains"),
+                request.getParameter("cursor"), request.getParameter("limit"), accept);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("consul.response.cache")
+                .description("Response byte cache lookups for the discovery endpoints")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CacheKey(String path, String prefix, String contains, String cursor, String limit, String accept) {
+    }
+
+    private record CachedResponse(Object version, String contentType, Map<String, String> headers,
+                                  byte[] body, byte[] gzipBody) {
+
+        long size() {
+            return body.length + (gzipBody != null ? gzipBody.length : 0);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.devquality.consulservice.service;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsulServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final ApplicationConfig applicationConfig = new ApplicationConfig();
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final ServiceRegistryCache registryCache = mock(ServiceRegistryCache.class);
+    private final HedgedInstanceLookup hedgedLookup = mock(HedgedInstanceLookup.class);
+
+    private ConsulService consulService;
+
+    @BeforeEach
+    void setUp() {
+        consulService = new ConsulService(
+                discoveryClient,
+                registryCache,
+                mock(ServiceLookupFanOut.class),
+                mock(ServiceStatsAggregator.class),
+                new SingleFlight<>("services", applicationConfig.getCoalescing().getMaxWait(), meterRegistry),
+                new SingleFlight<>("instances", applicationConfig.getCoalescing().getMaxWait(), meterRegistry),
+                new LastKnownGoodCache<>("services", applicationConfig.getFallback().getTtl(), 1, meterRegistry),
+                new LastKnownGoodCache<>("instances", applicationConfig.getFallback().getTtl(),
+                        applicationConfig.getFallback().getMaxEntries(), meterRegistry),
+                mock(ExecutorService.class),
+                new ConsulConcurrencyLimiter(applicationConfig, meterRegistry),
+                hedgedLookup,
+                new ServiceIsolation(circuitBreakerRegistry, BulkheadRegistry.ofDefaults(), applicationConfig),
+                new ConsulMetrics(meterRegistry, circuitBreakerRegistry),
+                mock(ServiceHealthCache.class),
+                applicationConfig);
+    }
+
+    @Test
+    void reportsRegistryAnswersStaleOnceConsulStopsConfirmingThem() {
+        Instant confirmedAt = Instant.now().minus(Duration.ofMinutes(5));
+        when(registryCache.isReady()).thenReturn(true);
+        when(registryCache.getServices()).thenReturn(List.of("orders"));
+        when(registryCache.getInstances("orders")).thenReturn(List.of(ServiceInstanceDto.builder().instanceId("orders-1").build()));
+
+        assertThat(consulService.lookupRegisteredServices().staleSince()).isNull();
+        assertThat(consulService.lookupServiceInstances("orders").staleSince()).isNull();
+
+        when(registryCache.getStaleSince()).thenReturn(confirmedAt);
+        LocalDateTime expected = LocalDateTime.ofInstant(confirmedAt, ZoneId.systemDefault());
+        assertThat(consulService.lookupRegisteredServices().staleSince()).isEqualTo(expected);
+        assertThat(consulService.lookupServiceInstances("orders").staleSince()).isEqualTo(expected);
+        assertThat(consulService.getRegisteredServices(null, null, null, null).staleSince()).isEqualTo(expected);
+        verify(discoveryClient, never()).getServices();
+    }
+
+    @Test
+    void servesLastKnownInstancesWhileTheServiceCircuitIsOpen() {
+        when(discoveryClient.getInstances("orders"))
+                .thenReturn(List.of(new DefaultServiceInstance("orders-1", "orders", "10.0.0.1", 8080, false, Map.of())));
+        Served<List<ServiceInstanceDto>> fresh = consulService.lookupServiceInstances("orders");
+        assertThat(fresh.staleSince()).isNull();
+
+        circuitBreakerRegistry.circuitBreaker(ServiceIsolation.NAME_PREFIX + "orders").transitionToOpenState();
+        Served<List<ServiceInstanceDto>> stale = consulService.lookupServiceInstances("orders");
+
+        assertThat(stale.staleSince()).isNotNull();
+        assertThat(stale.value()).extracting(ServiceInstanceDto::getInstanceId).containsExactly("orders-1");
+        verify(discoveryClient, times(1)).getInstances("orders");
+        verify(hedgedLookup, never()).getInstances("orders");
+    }
+}
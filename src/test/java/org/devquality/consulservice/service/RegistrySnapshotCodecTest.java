@@ -0,0 +1,101 @@
+package org.devquality.consulservice.service;
+
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistrySnapshotCodecTest {
+
+    private static final Instant REFRESHED_AT = Instant.ofEpochMilli(1_700_000_000_000L);
+
+    @Test
+    void roundTripsInstancesWithTagsMetadataAndNulls() throws Exception {
+        ServiceInstanceDto full = ServiceInstanceDto.builder()
+                .serviceId("orders")
+                .instanceId("orders-1")
+                .host("10.0.0.1")
+                .port(8443)
+                .uri(URI.create("https://10.0.0.1:8443"))
+                .secure(true)
+                .metadata(Map.of("zone", "eu-1", "owner", "team-ü"))
+                .tags(List.of("v1", "canary"))
+                .status("UP")
+                .scheme("https")
+                .build();
+        ServiceInstanceDto sparse = ServiceInstanceDto.builder()
+                .serviceId("orders")
+                .instanceId("orders-2")
+                .build();
+        RegistrySnapshot snapshot = new RegistrySnapshot(42, List.of("orders", "billing"),
+                Map.of("orders", List.of(full, sparse), "billing", List.of()), REFRESHED_AT);
+
+        RegistrySnapshot decoded = RegistrySnapshotCodec.decode(ByteBuffer.wrap(RegistrySnapshotCodec.encode(snapshot)));
+
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.index()).isEqualTo(42);
+        assertThat(decoded.refreshedAt()).isEqualTo(REFRESHED_AT);
+        assertThat(decoded.services()).containsExactly("orders", "billing");
+        assertThat(decoded.instancesOf("billing")).isEmpty();
+        assertThat(decoded.instancesOf("orders")).hasSize(2);
+        assertThat(decoded.instancesOf("orders").get(0)).isEqualTo(full);
+
+        // Absent collections come back empty, every other absent field stays null
+        ServiceInstanceDto decodedSparse = decoded.instancesOf("orders").get(1);
+        assertThat(decodedSparse.getInstanceId()).isEqualTo("orders-2");
+        assertThat(decodedSparse.getHost()).isNull();
+        assertThat(decodedSparse.getPort()).isNull();
+        assertThat(decodedSparse.getUri()).isNull();
+        assertThat(decodedSparse.getSecure()).isNull();
+        assertThat(decodedSparse.getStatus()).isNull();
+        assertThat(decodedSparse.getScheme()).isNull();
+        assertThat(decodedSparse.getMetadata()).isEmpty();
+        assertThat(decodedSparse.getTags()).isEmpty();
+
+        assertThat(decoded.servicesIndex()).isEqualTo(42);
+        assertThat(decoded.modifyIndexOf("orders")).isEqualTo(42);
+    }
+
+    @Test
+    void rejectsCorruptedPayload() throws Exception {
+        byte[] bytes = RegistrySnapshotCodec.encode(sample());
+        bytes[bytes.length - 1] ^= 0x7F;
+
+        assertThat(RegistrySnapshotCodec.decode(ByteBuffer.wrap(bytes))).isNull();
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws Exception {
+        byte[] bytes = RegistrySnapshotCodec.encode(sample());
+        ByteBuffer.wrap(bytes).putInt(0, 0xCAFEBABE);
+
+        assertThat(RegistrySnapshotCodec.decode(ByteBuffer.wrap(bytes))).isNull();
+        assertThat(RegistrySnapshotCodec.decode(ByteBuffer.wrap(bytes, 0, RegistrySnapshotCodec.HEADER_SIZE - 1))).isNull();
+    }
+
+    @Test
+    void rejectsFilesWrittenByVersionOne() throws Exception {
+        byte[] bytes = RegistrySnapshotCodec.encode(sample());
+        ByteBuffer.wrap(bytes).putShort(Integer.BYTES, (short) 1);
+
+        assertThat(RegistrySnapshotCodec.decode(ByteBuffer.wrap(bytes))).isNull();
+    }
+
+    private static RegistrySnapshot sample() {
+        ServiceInstanceDto instance = ServiceInstanceDto.builder()
+                .serviceId("orders")
+                .instanceId("orders-1")
+                .host("10.0.0.1")
+                .port(8080)
+                .tags(List.of("v1"))
+                .status("UP")
+                .build();
+        return new RegistrySnapshot(7, List.of("orders"), Map.of("orders", List.of(instance)), REFRESHED_AT);
+    }
+}
@@ -0,0 +1,176 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.exception.ConsulConnectionException;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceInstanceIndexTest {
+
+    private final ServiceRegistryCache registryCache = mock(ServiceRegistryCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServiceInstanceIndex index;
+    private RegistrySnapshot snapshot = RegistrySnapshot.EMPTY;
+
+    @BeforeEach
+    void setUp() {
+        when(registryCache.isReady()).thenReturn(true);
+        index = new ServiceInstanceIndex(registryCache, new ApplicationConfig(), meterRegistry);
+    }
+
+    @Test
+    void reusesSlotsOfRemovedServices() {
+        load(Map.of("orders", List.of(
+                instance("orders-1", List.of("v1"), Map.of()),
+                instance("orders-2", List.of("v1"), Map.of()))));
+        apply(new RegistryChangedEvent.ServiceChange("billing", null,
+                List.of(instance("billing-1", List.of("v1"), Map.of()))));
+
+        apply(new RegistryChangedEvent.ServiceChange("orders", snapshot.instancesOf("orders"), null));
+        apply(new RegistryChangedEvent.ServiceChange("shipping", null,
+                List.of(instance("shipping-1", List.of("v1"), Map.of()))));
+
+        // Query results follow slot order: shipping took the first slot orders released
+        ServiceInstanceIndex.Page page = index.query(List.of(), Map.of(), 0, 10);
+        assertThat(page.total()).isEqualTo(2);
+        assertThat(page.instances()).extracting(ServiceInstanceDto::getInstanceId)
+                .containsExactly("shipping-1", "billing-1");
+        assertThat(gauge("consul.index.instances")).isEqualTo(2);
+    }
+
+    @Test
+    void dropsTermsNoInstanceCarriesAnyMore() {
+        load(Map.of(
+                "orders", List.of(instance("orders-1", List.of("v1", "canary"), Map.of("zone", "a"))),
+                "billing", List.of(instance("billing-1", List.of("v1"), Map.of("zone", "b")))));
+        assertThat(gauge("consul.index.terms")).isEqualTo(4);
+
+        apply(new RegistryChangedEvent.ServiceChange("orders", snapshot.instancesOf("orders"), null));
+        assertThat(gauge("consul.index.terms")).isEqualTo(2);
+        assertThat(index.query(List.of("canary"), Map.of(), 0, 10).total()).isZero();
+
+        apply(new RegistryChangedEvent.ServiceChange("billing", snapshot.instancesOf("billing"), null));
+        assertThat(gauge("consul.index.terms")).isZero();
+        assertThat(gauge("consul.index.instances")).isZero();
+    }
+
+    @Test
+    void replacesInstancesOfAChangedService() {
+        load(Map.of("orders", List.of(instance("orders-1", List.of("v1"), Map.of()))));
+
+        apply(new RegistryChangedEvent.ServiceChange("orders", snapshot.instancesOf("orders"),
+                List.of(instance("orders-1", List.of("v2"), Map.of()))));
+
+        assertThat(index.query(List.of("v1"), Map.of(), 0, 10).total()).isZero();
+        assertThat(index.query(List.of("v2"), Map.of(), 0, 10).instances())
+                .extracting(ServiceInstanceDto::getInstanceId)
+                .containsExactly("orders-1");
+    }
+
+    @Test
+    void requiresEveryTagAnyValuePerKeyAndEveryKey() {
+        load(Map.of("orders", List.of(
+                instance("a", List.of("v1", "canary"), Map.of("zone", "eu-1", "tier", "gold")),
+                instance("b", List.of("v1"), Map.of("zone", "eu-2", "tier", "gold")),
+                instance("c", List.of("v1", "canary"), Map.of("zone", "us-1", "tier", "gold")),
+                instance("d", List.of("v2"), Map.of("zone", "eu-1", "tier", "silver")))));
+
+        assertThat(ids(List.of("v1", "canary"), Map.of())).containsExactlyInAnyOrder("a", "c");
+        assertThat(ids(List.of(), Map.of("zone", List.of("eu-1", "eu-2")))).containsExactlyInAnyOrder("a", "b", "d");
+        assertThat(ids(List.of(), Map.of("zone", List.of("eu-1", "eu-2"), "tier", List.of("gold"))))
+                .containsExactlyInAnyOrder("a", "b");
+        assertThat(ids(List.of("canary"), Map.of("zone", List.of("eu-1", "eu-2")))).containsExactly("a");
+        assertThat(ids(List.of("v1", "missing"), Map.of())).isEmpty();
+        assertThat(ids(List.of(), Map.of("zone", List.of("ap-1")))).isEmpty();
+        assertThat(ids(List.of(), Map.of())).containsExactlyInAnyOrder("a", "b", "c", "d");
+    }
+
+    @Test
+    void pagesThroughMatchesWithTheFullTotal() {
+        load(Map.of("orders", List.of(
+                instance("orders-1", List.of("v1"), Map.of()),
+                instance("orders-2", List.of("v1"), Map.of()),
+                instance("orders-3", List.of("v1"), Map.of()),
+                instance("orders-4", List.of("v1"), Map.of()),
+                instance("orders-5", List.of("v1"), Map.of()))));
+
+        ServiceInstanceIndex.Page first = index.query(List.of("v1"), Map.of(), 0, 2);
+        ServiceInstanceIndex.Page last = index.query(List.of("v1"), Map.of(), 2, 2);
+        ServiceInstanceIndex.Page beyond = index.query(List.of("v1"), Map.of(), 3, 2);
+
+        assertThat(first.total()).isEqualTo(5);
+        assertThat(first.instances()).extracting(ServiceInstanceDto::getInstanceId)
+                .containsExactly("orders-1", "orders-2");
+        assertThat(last.instances()).extracting(ServiceInstanceDto::getInstanceId)
+                .containsExactly("orders-5");
+        assertThat(beyond.total()).isEqualTo(5);
+        assertThat(beyond.instances()).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidPagesAndQueriesBeforeTheRegistryIsLoaded() {
+        assertThatThrownBy(() -> index.query(List.of(), Map.of(), -1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.query(List.of(), Map.of(), 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.query(List.of(), Map.of(), 0, 1001))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        when(registryCache.isReady()).thenReturn(false);
+        assertThatThrownBy(() -> index.query(List.of(), Map.of(), 0, 10))
+                .isInstanceOf(ConsulConnectionException.class);
+    }
+
+    private void load(Map<String, List<ServiceInstanceDto>> instances) {
+        RegistrySnapshot current = new RegistrySnapshot(1, List.copyOf(instances.keySet()), instances, Instant.now());
+        index.onRegistryChanged(new RegistryChangedEvent(RegistrySnapshot.EMPTY, current, List.of()));
+        snapshot = current;
+    }
+
+    private void apply(RegistryChangedEvent.ServiceChange change) {
+        Map<String, List<ServiceInstanceDto>> instances = new HashMap<>(snapshot.instances());
+        if (change.isRemoved()) {
+            instances.remove(change.serviceName());
+        } else {
+            instances.put(change.serviceName(), change.current());
+        }
+        RegistrySnapshot current = new RegistrySnapshot(snapshot.index() + 1,
+                List.copyOf(instances.keySet()), instances, Instant.now());
+        index.onRegistryChanged(new RegistryChangedEvent(snapshot, current, List.of(change)));
+        snapshot = current;
+    }
+
+    private List<String> ids(List<String> tags, Map<String, List<String>> metadata) {
+        return index.query(tags, metadata, 0, 100).instances().stream()
+                .map(ServiceInstanceDto::getInstanceId)
+                .toList();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static ServiceInstanceDto instance(String instanceId, List<String> tags, Map<String, String> metadata) {
+        return ServiceInstanceDto.builder()
+                .serviceId(instanceId.contains("-") ? instanceId.substring(0, instanceId.indexOf('-')) : "orders")
+                .instanceId(instanceId)
+                .host("10.0.0.1")
+                .port(8080)
+                .tags(tags)
+                .metadata(metadata)
+                .status("UP")
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package org.devquality.consulservice.service;
+
+import com.ecwid.consul.v1.ConsulClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.consul.discovery.ConsulDiscoveryProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ServiceRegistryCacheTest {
+
+    private final ApplicationConfig applicationConfig = new ApplicationConfig();
+    private final ServiceRegistryCache registryCache = new ServiceRegistryCache(
+            mock(DiscoveryClient.class),
+            mock(ConsulClient.class),
+            mock(ConsulDiscoveryProperties.class),
+            new ConsulConcurrencyLimiter(applicationConfig, new SimpleMeterRegistry()),
+            mock(ApplicationEventPublisher.class),
+            applicationConfig,
+            new SimpleMeterRegistry());
+
+    @Test
+    void seededSnapshotIsFreshWhileRecentlyConfirmed() {
+        registryCache.seed(snapshot(), Instant.now().minusSeconds(5));
+
+        assertThat(registryCache.isReady()).isTrue();
+        assertThat(registryCache.getStaleSince()).isNull();
+    }
+
+    @Test
+    void seededSnapshotIsStaleSinceItWasLastConfirmed() {
+        Instant confirmedAt = Instant.now().minus(applicationConfig.getRegistry().getStaleAfter()).minus(Duration.ofMinutes(30));
+        registryCache.seed(snapshot(), confirmedAt);
+
+        assertThat(registryCache.getStaleSince()).isEqualTo(confirmedAt);
+    }
+
+    private static RegistrySnapshot snapshot() {
+        return new RegistrySnapshot(3, List.of("orders"), Map.of("orders", List.of()), Instant.now());
+    }
+}
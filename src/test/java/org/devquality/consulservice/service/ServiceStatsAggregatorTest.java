@@ -0,0 +1,140 @@
+package org.devquality.consulservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.devquality.consulservice.config.ApplicationConfig;
+import org.devquality.consulservice.web.dtos.ServiceInstanceDto;
+import org.devquality.consulservice.web.dtos.ServiceStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceStatsAggregatorTest {
+
+    private final ServiceStatsAggregator aggregator =
+            new ServiceStatsAggregator(new ApplicationConfig(), new SimpleMeterRegistry());
+    private RegistrySnapshot snapshot = RegistrySnapshot.EMPTY;
+
+    @Test
+    void isNotReadyBeforeTheFirstSnapshot() {
+        assertThat(aggregator.isReady()).isFalse();
+        assertThat(aggregator.getStats()).isNull();
+        assertThat(new ServiceStatsAggregator.Published(aggregator.getStats(), -1).etag()).isNull();
+    }
+
+    @Test
+    void computesTotalsFromTheInitialSnapshot() {
+        load(Map.of(
+                "orders", List.of(instance("UP"), instance("DOWN")),
+                "billing", List.of(instance("DOWN")),
+                "legacy", List.of()));
+
+        ServiceStatsDto stats = aggregator.getStats();
+        assertThat(stats.getTotalServices()).isEqualTo(3);
+        assertThat(stats.getHealthyServices()).isEqualTo(1);
+        assertThat(stats.getUnhealthyServices()).isEqualTo(2);
+        assertThat(stats.getUnknownServices()).isZero();
+        assertThat(stats.getTotalInstances()).isEqualTo(3);
+        assertThat(stats.getServicesByStatus()).isEqualTo(Map.of("HEALTHY", 1, "UNHEALTHY", 1, "UNAVAILABLE", 1));
+        assertThat(stats.getInstancesByService()).isEqualTo(Map.of("orders", 2, "billing", 1));
+        assertMatchesFullRecompute();
+    }
+
+    @Test
+    void appliesAddChangeAndRemoveDeltas() {
+        load(Map.of(
+                "orders", List.of(instance("UP"), instance("UP")),
+                "billing", List.of(instance("DOWN"))));
+
+        apply(new RegistryChangedEvent.ServiceChange("shipping", null, List.of(instance(null))));
+        assertThat(aggregator.getStats().getTotalServices()).isEqualTo(3);
+        assertThat(aggregator.getStats().getTotalInstances()).isEqualTo(4);
+        assertMatchesFullRecompute();
+
+        apply(new RegistryChangedEvent.ServiceChange("billing", snapshot.instancesOf("billing"),
+                List.of(instance("DOWN"), instance("UP"), instance("UP"))));
+        assertThat(aggregator.getStats().getHealthyServices()).isEqualTo(3);
+        assertThat(aggregator.getStats().getServicesByStatus()).isEqualTo(Map.of("HEALTHY", 3));
+        assertThat(aggregator.getStats().getInstancesByService()).containsEntry("billing", 3);
+        assertMatchesFullRecompute();
+
+        apply(new RegistryChangedEvent.ServiceChange("orders", snapshot.instancesOf("orders"), List.of()));
+        assertThat(aggregator.getStats().getTotalServices()).isEqualTo(3);
+        assertThat(aggregator.getStats().getServicesByStatus()).isEqualTo(Map.of("HEALTHY", 2, "UNAVAILABLE", 1));
+        assertThat(aggregator.getStats().getInstancesByService()).doesNotContainKey("orders");
+        assertMatchesFullRecompute();
+
+        apply(new RegistryChangedEvent.ServiceChange("orders", snapshot.instancesOf("orders"), null));
+        apply(new RegistryChangedEvent.ServiceChange("billing", snapshot.instancesOf("billing"), null));
+        ServiceStatsDto stats = aggregator.getStats();
+        assertThat(stats.getTotalServices()).isEqualTo(1);
+        assertThat(stats.getHealthyServices()).isEqualTo(1);
+        assertThat(stats.getUnhealthyServices()).isZero();
+        assertThat(stats.getTotalInstances()).isEqualTo(1);
+        assertThat(stats.getServicesByStatus()).isEqualTo(Map.of("HEALTHY", 1));
+        assertThat(stats.getInstancesByService()).isEqualTo(Map.of("shipping", 1));
+        assertMatchesFullRecompute();
+    }
+
+    @Test
+    void publishesTheIndexTheStatsDescribe() {
+        load(Map.of("orders", List.of(instance("UP"))));
+        apply(new RegistryChangedEvent.ServiceChange("billing", null, List.of(instance("UP"))));
+
+        ServiceStatsAggregator.Published published = aggregator.getPublished();
+        assertThat(published.stats()).isSameAs(aggregator.getStats());
+        assertThat(published.index()).isEqualTo(snapshot.index());
+        assertThat(published.etag()).isEqualTo("W/\"stats-" + snapshot.index() + "\"");
+    }
+
+    @Test
+    void rebuildsWhenTheRegistryStartsOver() {
+        load(Map.of("orders", List.of(instance("UP"))));
+        snapshot = RegistrySnapshot.EMPTY;
+        load(Map.of("billing", List.of(instance("DOWN"))));
+
+        assertThat(aggregator.getStats().getInstancesByService()).isEqualTo(Map.of("billing", 1));
+        assertMatchesFullRecompute();
+    }
+
+    private void assertMatchesFullRecompute() {
+        ServiceStatsDto expected = ServiceStatsAggregator.compute(snapshot);
+        assertThat(aggregator.getStats())
+                .usingRecursiveComparison()
+                .ignoringFields("lastUpdated")
+                .isEqualTo(expected);
+    }
+
+    private void load(Map<String, List<ServiceInstanceDto>> instances) {
+        RegistrySnapshot current = new RegistrySnapshot(snapshot.index() + 10,
+                List.copyOf(instances.keySet()), instances, Instant.now());
+        aggregator.onRegistryChanged(new RegistryChangedEvent(snapshot, current, List.of()));
+        snapshot = current;
+    }
+
+    private void apply(RegistryChangedEvent.ServiceChange change) {
+        Map<String, List<ServiceInstanceDto>> instances = new HashMap<>(snapshot.instances());
+        if (change.isRemoved()) {
+            instances.remove(change.serviceName());
+        } else {
+            instances.put(change.serviceName(), change.current());
+        }
+        RegistrySnapshot current = new RegistrySnapshot(snapshot.index() + 1,
+                List.copyOf(instances.keySet()), instances, Instant.now());
+        aggregator.onRegistryChanged(new RegistryChangedEvent(snapshot, current, List.of(change)));
+        snapshot = current;
+    }
+
+    private static ServiceInstanceDto instance(String status) {
+        return ServiceInstanceDto.builder()
+                .instanceId("instance-" + status)
+                .host("10.0.0.1")
+                .port(8080)
+                .status(status)
+                .build();
+    }
+}